@@ -0,0 +1,152 @@
+package ru.practicum.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.item.Item;
+import ru.practicum.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the last and next booking of every item of an owner, once through {@link ItemBookingIndex} and once
+ * through {@code HashMap<Long, List<Booking>>} grouping. The query results are built in setup, so a run with
+ * {@code -prof gc} shows the bytes each approach allocates per owner list in {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemBookingIndexBenchmark {
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    @Param({"100", "1000"})
+    private int items;
+
+    private List<Long> itemIds;
+    private List<ItemBookingEntry> pastEntries;
+    private List<ItemBookingEntry> futureEntries;
+    private List<Booking> pastBookings;
+    private List<Booking> futureBookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        itemIds = new ArrayList<>();
+        pastEntries = new ArrayList<>();
+        futureEntries = new ArrayList<>();
+        pastBookings = new ArrayList<>();
+        futureBookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        long bookingId = 1;
+        for (long itemId = 1; itemId <= items; itemId++) {
+            itemIds.add(itemId);
+            Item item = new Item();
+            item.setId(itemId);
+            for (int i = 1; i <= BOOKINGS_PER_ITEM / 2; i++) {
+                long bookerId = 1_000_000 + bookingId;
+                pastEntries.add(new Entry(bookingId, itemId, bookerId, now.minusDays(i)));
+                pastBookings.add(booking(bookingId++, item, bookerId, now.minusDays(i)));
+                futureEntries.add(new Entry(bookingId, itemId, bookerId, now.plusDays(i)));
+                futureBookings.add(booking(bookingId++, item, bookerId, now.plusDays(i)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void primitiveIndex(Blackhole blackhole) {
+        ItemBookingIndex index = new ItemBookingIndex(itemIds.size());
+        pastEntries.forEach(index::offerLast);
+        futureEntries.forEach(index::offerNext);
+        for (Long itemId : itemIds) {
+            if (index.hasLast(itemId)) {
+                blackhole.consume(index.lastBookingId(itemId));
+                blackhole.consume(index.lastBookerId(itemId));
+            }
+            if (index.hasNext(itemId)) {
+                blackhole.consume(index.nextBookingId(itemId));
+                blackhole.consume(index.nextBookerId(itemId));
+            }
+        }
+    }
+
+    @Benchmark
+    public void boxedMap(Blackhole blackhole) {
+        Map<Long, List<Booking>> past = groupByItem(pastBookings);
+        Map<Long, List<Booking>> future = groupByItem(futureBookings);
+        for (Long itemId : itemIds) {
+            past.getOrDefault(itemId, List.of()).stream()
+                    .max(Comparator.comparing(Booking::getStart))
+                    .ifPresent(booking -> {
+                        blackhole.consume(booking.getId());
+                        blackhole.consume(booking.getBooker().getId());
+                    });
+            future.getOrDefault(itemId, List.of()).stream()
+                    .min(Comparator.comparing(Booking::getStart))
+                    .ifPresent(booking -> {
+                        blackhole.consume(booking.getId());
+                        blackhole.consume(booking.getBooker().getId());
+                    });
+        }
+    }
+
+    private static Map<Long, List<Booking>> groupByItem(List<Booking> bookings) {
+        Map<Long, List<Booking>> byItem = new HashMap<>();
+        for (Booking booking : bookings) {
+            byItem.computeIfAbsent(booking.getItem().getId(), itemId -> new ArrayList<>()).add(booking);
+        }
+        return byItem;
+    }
+
+    private static Booking booking(long id, Item item, long bookerId, LocalDateTime start) {
+        User booker = new User();
+        booker.setId(bookerId);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(1));
+        booking.setStatus(Booking.BookingStatus.APPROVED);
+        return booking;
+    }
+
+    private record Entry(Long id, Long itemId, Long bookerId, LocalDateTime start) implements ItemBookingEntry {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public Long getBookerId() {
+            return bookerId;
+        }
+
+        @Override
+        public LocalDateTime getStart() {
+            return start;
+        }
+    }
+}
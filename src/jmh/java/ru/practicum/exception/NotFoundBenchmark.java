@@ -0,0 +1,80 @@
+package ru.practicum.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a 404: a {@link NotFoundException} thrown {@code frames} calls below the handler, which is about
+ * as deep as a controller runs under Tomcat and Spring MVC, and turned into a response by {@link ErrorHandler}.
+ * {@code stackTraces} switches {@code shareit.errors.stack-traces}. {@code uncachedBody} serializes a new
+ * {@link ErrorResponse} for every hit, as the handler did before error bodies were cached.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotFoundBenchmark {
+    @Param({"true", "false"})
+    private boolean stackTraces;
+
+    @Param({"100"})
+    private int frames;
+
+    private ObjectMapper objectMapper;
+    private ErrorHandler errorHandler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ShareItException.setStackTraceEnabled(stackTraces);
+        objectMapper = new ObjectMapper();
+        errorHandler = new ErrorHandler(new ErrorBodyCache(objectMapper, 1000),
+                new ErrorMetrics(new SimpleMeterRegistry(), 10, 1));
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cachedBody() {
+        try {
+            return findItem(frames);
+        } catch (NotFoundException e) {
+            return errorHandler.handleDomain(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> uncachedBody() throws JsonProcessingException {
+        try {
+            return findItem(frames);
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsBytes(new ErrorResponse(e.getMessage())));
+        }
+    }
+
+    private static ResponseEntity<byte[]> findItem(int depth) {
+        if (depth > 0) {
+            return findItem(depth - 1);
+        }
+        throw new NotFoundException("Item not found");
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.ShareItApplication;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first byte and to the full body of 1,000 items of one owner, served by the application over loopback
+ * with {@code server.compression.enabled} off and on. {@code search} is {@code GET /items/search}, written from
+ * the database cursor as the rows arrive; {@code owner} is {@code GET /items}, which builds the whole list before
+ * writing it. The client asks for gzip and does not decompress, so the body length printed once per trial is the
+ * number of bytes on the wire. The first byte benchmark closes the stream after one byte, so each call opens a
+ * new connection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemSearchResponseBenchmark {
+    private static final int ITEMS = 1000;
+
+    @Param({"search", "owner"})
+    private String endpoint;
+
+    @Param({"false", "true"})
+    private boolean compression;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        context = SpringApplication.run(ShareItApplication.class,
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--server.compression.enabled=" + compression);
+        UserDto owner = new UserDto();
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        Long ownerId = context.getBean(UserService.class).save(owner).getId();
+        ItemService itemService = context.getBean(ItemService.class);
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = new ItemDto();
+            item.setName("Drill " + i);
+            item.setDescription("Cordless drill with two batteries, a charger and a case");
+            item.setAvailable(true);
+            itemService.create(item, ownerId);
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newHttpClient();
+        String path = "search".equals(endpoint) ? "/items/search?text=drill" : "/items";
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept-Encoding", "gzip")
+                .header(HttpHeaders.USER_ID_HEADER, String.valueOf(ownerId))
+                .build();
+        System.out.println(endpoint + ", compression=" + compression + ": "
+                + fullBody().length + " bytes on the wire");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int firstByte() throws IOException, InterruptedException {
+        try (InputStream body = client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            return body.read();
+        }
+    }
+
+    @Benchmark
+    public byte[] fullBody() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
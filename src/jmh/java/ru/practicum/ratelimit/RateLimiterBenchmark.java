@@ -0,0 +1,82 @@
+package ru.practicum.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link RateLimiter#tryAcquire} call with the groups from {@code application.properties}. The buckets
+ * refill fast enough to admit every call, so this measures the admitted path that real traffic takes. At 50k
+ * requests per second a result of {@code n} ns/op costs {@code 50_000 * n} ns of CPU per second, e.g. 100 ns/op
+ * is 0.5% of one core. Run with {@code -t} to add threads that contend for the same buckets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+    private static final PathContainer SEARCH = PathContainer.parsePath("/items/search");
+    private static final PathContainer ITEM = PathContainer.parsePath("/items/42");
+
+    @Param({"1", "10000"})
+    private int users;
+
+    private RateLimiter rateLimiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put("search", group("/items/search"));
+        properties.getGroups().put("default", group("/**"));
+        rateLimiter = new RateLimiter(properties);
+    }
+
+    @Benchmark
+    public long searchGroup(Caller caller) {
+        return rateLimiter.tryAcquire(SEARCH, caller.next(users));
+    }
+
+    @Benchmark
+    public long defaultGroup(Caller caller) {
+        return rateLimiter.tryAcquire(ITEM, caller.next(users));
+    }
+
+    private static RateLimitProperties.Group group(String pattern) {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setPatterns(List.of(pattern));
+        group.setCapacity(1_000_000);
+        group.setRefillPerSecond(1_000_000_000);
+        return group;
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private long userId;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            userId = ThreadLocalRandom.current().nextLong(10_000);
+        }
+
+        Object next(int users) {
+            userId = userId % users + 1;
+            return Long.valueOf(userId);
+        }
+    }
+}
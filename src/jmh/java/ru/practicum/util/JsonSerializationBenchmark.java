@@ -0,0 +1,89 @@
+package ru.practicum.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.booking.BookingMapper;
+import ru.practicum.booking.BookingMapperImpl;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a default page of ten bookings the way {@code GET /bookings} does. {@code mapper} is either Spring's
+ * default Jackson setup or that setup with the {@link JacksonConfig} modules; {@code view} is the full response or
+ * {@code view=compact}. The size of each response in bytes is printed once per trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"default", "tuned"})
+    private String mapper;
+
+    @Param({"full", "compact"})
+    private String view;
+
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+    private ObjectMapper objectMapper;
+    private List<BookingResponseDto> page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (mapper.equals("tuned")) {
+            JacksonConfig config = new JacksonConfig();
+            builder.modulesToInstall(config.blackbirdModule(), config.localDateTimeModule());
+        }
+        objectMapper = builder.build();
+        page = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 10, 0);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(booking(i + 1, start.plusDays(i)));
+        }
+        System.out.println(mapper + "/" + view + ": " + serialize().length + " bytes per response");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        if (view.equals("compact")) {
+            return objectMapper.writeValueAsBytes(page.stream().map(bookingMapper::toCompactDto).toList());
+        }
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static BookingResponseDto booking(long id, LocalDateTime start) {
+        UserDto booker = new UserDto();
+        booker.setId(100 + id);
+        booker.setName("Booker " + id);
+        booker.setEmail("booker" + id + "@example.com");
+        ItemDto item = new ItemDto();
+        item.setId(200 + id);
+        item.setName("Cordless drill " + id);
+        item.setDescription("18V drill with two batteries and a charger");
+        item.setAvailable(true);
+        return new BookingResponseDto(id, start, start.plusHours(3), "APPROVED", booker, item);
+    }
+}
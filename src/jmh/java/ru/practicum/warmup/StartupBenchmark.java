@@ -0,0 +1,87 @@
+package ru.practicum.warmup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.ShareItApplication;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.HttpHeaders;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the application in a fresh JVM per fork, with and without the {@code faststart} Spring profile.
+ * {@code ready} stops once {@code SpringApplication.run} returns, after the warm-up runner and just before the
+ * readiness probe turns ready; {@code readyAndFirstRequests} also serves the first booking list requests, where
+ * the warm-up should pay off. AOT and the AppCDS archive need the packaged faststart jar and are not covered here.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    private static final int FIRST_REQUESTS = 100;
+
+    @Param({"test", "test,faststart"})
+    private String profiles;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext ready() {
+        context = start();
+        return context;
+    }
+
+    @Benchmark
+    public int readyAndFirstRequests() throws IOException, InterruptedException {
+        context = start();
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail("user@example.com");
+        Long userId = context.getBean(UserService.class).save(user).getId();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings"))
+                .header(HttpHeaders.USER_ID_HEADER, String.valueOf(userId))
+                .build();
+        int status = 0;
+        for (int i = 0; i < FIRST_REQUESTS; i++) {
+            status += client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+        return status;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return SpringApplication.run(ShareItApplication.class,
+                "--spring.profiles.active=" + profiles,
+                "--server.port=0");
+    }
+}
@@ -0,0 +1,261 @@
+package ru.practicum.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.exception.UnsupportedStatusException;
+import ru.practicum.shard.ShardRouter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-booker booking timeline kept as parallel primitive arrays ordered by start, then id, descending, covering
+ * both the hot and the archive table. Booker list queries are answered from it by binary search on the start and
+ * a linear filter, so only the ids of the requested page have to be read from the database. A timeline is
+ * loaded on first access and patched after commit when a booking is created or decided on this instance.
+ * Changes made through other instances are not seen until the timeline expires, so it is off by default and
+ * meant for single-instance deployments.
+ */
+@Component
+public class BookerTimeline {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository archiveRepository;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final Cache<Long, Timeline> timelines;
+
+    public BookerTimeline(BookingRepository bookingRepository,
+                          BookingArchiveRepository archiveRepository,
+                          ShardRouter shardRouter,
+                          @Value("${shareit.booking.timeline.enabled:false}") boolean enabled,
+                          @Value("${shareit.booking.timeline.max-size:10000}") long maxSize,
+                          @Value("${shareit.booking.timeline.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.archiveRepository = archiveRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the ids of one page of the booker's bookings in the given state, newest start first.
+     */
+    public List<Long> page(Long bookerId, String state, LocalDateTime now, long offset, int size) {
+        Timeline timeline = timelines.get(bookerId, this::load);
+        long instant = toInstant(now);
+        switch (state.toUpperCase()) {
+            case "ALL":
+                return timeline.page(0, timeline.size(), i -> true, offset, size);
+            case "CURRENT":
+                return timeline.page(timeline.firstStartBefore(instant, false), timeline.size(),
+                        i -> timeline.ends[i] > instant, offset, size);
+            case "PAST":
+                return timeline.page(timeline.firstStartBefore(instant, false), timeline.size(),
+                        i -> timeline.ends[i] < instant, offset, size);
+            case "FUTURE":
+                return timeline.page(0, timeline.firstStartBefore(instant, true), i -> true, offset, size);
+            case "WAITING":
+            case "REJECTED":
+                byte status = (byte) Booking.BookingStatus.valueOf(state.toUpperCase()).ordinal();
+                return timeline.page(0, timeline.size(), i -> timeline.statuses[i] == status, offset, size);
+            default:
+                throw new UnsupportedStatusException("Unknown state: " + state);
+        }
+    }
+
+    public void addAfterCommit(Booking booking) {
+        Long bookerId = booking.getBooker().getId();
+        long id = booking.getId();
+        long start = toInstant(booking.getStart());
+        long end = toInstant(booking.getEnd());
+        byte status = (byte) booking.getStatus().ordinal();
+        afterCommit(() -> timelines.asMap().computeIfPresent(bookerId,
+                (key, timeline) -> timeline.with(id, start, end, status)));
+    }
+
+    public void updateStatusAfterCommit(Long bookerId, Long bookingId, Booking.BookingStatus status) {
+        byte ordinal = (byte) status.ordinal();
+        afterCommit(() -> timelines.asMap().computeIfPresent(bookerId,
+                (key, timeline) -> timeline.withStatus(bookingId, ordinal)));
+    }
+
+    public void invalidate(Long bookerId) {
+        timelines.invalidate(bookerId);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Timeline load(Long bookerId) {
+        List<BookingTimelineEntry> entries = new ArrayList<>();
+        shardRouter.scatter(() -> {
+            List<BookingTimelineEntry> shard = new ArrayList<>(bookingRepository.findTimelineByBookerId(bookerId));
+            shard.addAll(archiveRepository.findTimelineByBookerId(bookerId));
+            return shard;
+        }).forEach(entries::addAll);
+        return Timeline.of(entries);
+    }
+
+    private static long toInstant(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private interface IndexFilter {
+        boolean test(int index);
+    }
+
+    /**
+     * Immutable snapshot; updates copy the arrays, so readers never see a half-applied change.
+     */
+    private static final class Timeline {
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final byte[] statuses;
+
+        private Timeline(long[] ids, long[] starts, long[] ends, byte[] statuses) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.statuses = statuses;
+        }
+
+        static Timeline of(List<BookingTimelineEntry> entries) {
+            entries.sort(Comparator.comparing(BookingTimelineEntry::getStart)
+                    .thenComparing(BookingTimelineEntry::getId).reversed());
+            int size = entries.size();
+            Timeline timeline = new Timeline(new long[size], new long[size], new long[size], new byte[size]);
+            for (int i = 0; i < size; i++) {
+                BookingTimelineEntry entry = entries.get(i);
+                timeline.ids[i] = entry.getId();
+                timeline.starts[i] = toInstant(entry.getStart());
+                timeline.ends[i] = toInstant(entry.getEnd());
+                timeline.statuses[i] = (byte) entry.getStatus().ordinal();
+            }
+            return timeline;
+        }
+
+        /**
+         * Index of the first booking starting before {@code instant} (or at it, when {@code inclusive});
+         * every booking from there on starts no later.
+         */
+        int firstStartBefore(long instant, boolean inclusive) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < instant || inclusive && starts[mid] == instant) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        List<Long> page(int from, int to, IndexFilter filter, long offset, int size) {
+            List<Long> page = new ArrayList<>(size);
+            long skipped = 0;
+            for (int i = from; i < to && page.size() < size; i++) {
+                if (!filter.test(i)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(ids[i]);
+                }
+            }
+            return page;
+        }
+
+        Timeline with(long id, long start, long end, byte status) {
+            Timeline base = without(id);
+            int at = 0;
+            while (at < base.ids.length
+                    && (base.starts[at] > start || base.starts[at] == start && base.ids[at] > id)) {
+                at++;
+            }
+            int size = base.ids.length + 1;
+            Timeline timeline = new Timeline(new long[size], new long[size], new long[size], new byte[size]);
+            base.copyTo(timeline, 0, 0, at);
+            timeline.ids[at] = id;
+            timeline.starts[at] = start;
+            timeline.ends[at] = end;
+            timeline.statuses[at] = status;
+            base.copyTo(timeline, at, at + 1, base.ids.length - at);
+            return timeline;
+        }
+
+        Timeline withStatus(long id, byte status) {
+            int at = indexOf(id);
+            if (at < 0) {
+                return this;
+            }
+            byte[] updated = Arrays.copyOf(statuses, statuses.length);
+            updated[at] = status;
+            return new Timeline(ids, starts, ends, updated);
+        }
+
+        private Timeline without(long id) {
+            int at = indexOf(id);
+            if (at < 0) {
+                return this;
+            }
+            int size = ids.length - 1;
+            Timeline timeline = new Timeline(new long[size], new long[size], new long[size], new byte[size]);
+            copyTo(timeline, 0, 0, at);
+            copyTo(timeline, at + 1, at, size - at);
+            return timeline;
+        }
+
+        private int indexOf(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void copyTo(Timeline target, int from, int to, int length) {
+            System.arraycopy(ids, from, target.ids, to, length);
+            System.arraycopy(starts, from, target.starts, to, length);
+            System.arraycopy(ends, from, target.ends, to, length);
+            System.arraycopy(statuses, from, target.statuses, to, length);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingApprovalTarget {
+
+    Long getId();
+
+    Booking.BookingStatus getStatus();
+
+    Long getItemId();
+
+    Long getOwnerId();
+
+    Long getBookerId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
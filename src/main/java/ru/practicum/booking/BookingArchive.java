@@ -0,0 +1,153 @@
+package ru.practicum.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shard.ShardMerge;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the bookings archive. Only finished, decided bookings whose end is older than the retention
+ * window are moved to {@code bookings_archive}, so every archived booking starts before {@link #horizon}.
+ * Queries read the hot table first and consult the archive only when the requested page reaches past that
+ * horizon. The two reads do not share a snapshot, so a booking archived in between shows up in both; the
+ * archived copy is dropped before the merge.
+ */
+@Component
+public class BookingArchive {
+    private static final Comparator<Booking> BY_START_DESC =
+            Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed();
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository archiveRepository;
+    private final Duration retention;
+
+    public BookingArchive(BookingRepository bookingRepository,
+                          BookingArchiveRepository archiveRepository,
+                          @Value("${shareit.booking.archive.retention:P90D}") Duration retention) {
+        this.bookingRepository = bookingRepository;
+        this.archiveRepository = archiveRepository;
+        this.retention = retention;
+    }
+
+    public LocalDateTime horizon(LocalDateTime now) {
+        return now.minus(retention);
+    }
+
+    public List<Booking> page(Pageable pageable, LocalDateTime now,
+                              Function<Pageable, List<Booking>> hot,
+                              Function<Pageable, List<ArchivedBooking>> archived) {
+        List<Booking> page = hot.apply(pageable);
+        if (page.size() == pageable.getPageSize()
+                && !page.get(page.size() - 1).getStart().isBefore(horizon(now))) {
+            return page;
+        }
+        Pageable head = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize());
+        List<Booking> hotHead = pageable.getOffset() == 0 ? page : hot.apply(head);
+        Set<Long> hotIds = hotHead.stream().map(Booking::getId).collect(Collectors.toSet());
+        List<Booking> archivedHead = archived.apply(head).stream()
+                .filter(booking -> !hotIds.contains(booking.getId()))
+                .map(ArchivedBooking::toBooking)
+                .collect(Collectors.toList());
+        if (archivedHead.isEmpty()) {
+            return page;
+        }
+        return ShardMerge.mergeSorted(List.of(hotHead, archivedHead), BY_START_DESC,
+                pageable.getOffset(), pageable.getPageSize());
+    }
+
+    public List<Booking> search(BookingSearchCriteria criteria, Pageable pageable, LocalDateTime now) {
+        if (!mayReachArchive(criteria, now)) {
+            return bookingRepository.search(criteria, pageable);
+        }
+        return page(pageable, now,
+                p -> bookingRepository.search(criteria, p),
+                p -> bookingRepository.searchArchive(criteria, p));
+    }
+
+    public Optional<Booking> findById(Long bookingId) {
+        Optional<Booking> booking = bookingRepository.findById(bookingId);
+        if (booking.isPresent()) {
+            return booking;
+        }
+        return archiveRepository.findById(bookingId).map(ArchivedBooking::toBooking);
+    }
+
+    public List<Booking> findAllById(Collection<Long> bookingIds) {
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findAllById(bookingIds));
+        if (bookings.size() == bookingIds.size()) {
+            return bookings;
+        }
+        Set<Long> found = bookings.stream().map(Booking::getId).collect(Collectors.toSet());
+        List<Long> missing = bookingIds.stream().filter(id -> !found.contains(id)).collect(Collectors.toList());
+        archiveRepository.findAllById(missing).forEach(archived -> bookings.add(archived.toBooking()));
+        return bookings;
+    }
+
+    public List<BookingApprovalTarget> findApprovalTargets(Collection<Long> bookingIds) {
+        List<BookingApprovalTarget> targets = new ArrayList<>(bookingRepository.findApprovalTargets(bookingIds));
+        if (targets.size() == bookingIds.size()) {
+            return targets;
+        }
+        Set<Long> found = targets.stream().map(BookingApprovalTarget::getId).collect(Collectors.toSet());
+        List<Long> missing = bookingIds.stream().filter(id -> !found.contains(id)).collect(Collectors.toList());
+        targets.addAll(archiveRepository.findApprovalTargets(missing));
+        return targets;
+    }
+
+    public Optional<Booking> findLastBooking(Long itemId, LocalDateTime now) {
+        Optional<Booking> last = bookingRepository.findLastBooking(itemId, now).stream().findFirst();
+        if (last.isPresent() && !last.get().getStart().isBefore(horizon(now))) {
+            return last;
+        }
+        Optional<Booking> archived = archiveRepository.findLastBooking(itemId, now, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .map(ArchivedBooking::toBooking);
+        if (archived.isEmpty() || last.isPresent() && !last.get().getStart().isBefore(archived.get().getStart())) {
+            return last;
+        }
+        return archived;
+    }
+
+    public ItemBookingIndex indexOwnerItems(Long ownerId, Collection<Long> itemIds, LocalDateTime now) {
+        ItemBookingIndex index = new ItemBookingIndex(itemIds.size());
+        bookingRepository.findLastBookingsByOwner(ownerId, now).forEach(index::offerLast);
+        bookingRepository.findNextBookingsByOwner(ownerId, now).forEach(index::offerNext);
+        LocalDateTime horizon = horizon(now);
+        List<Long> reachingArchive = itemIds.stream()
+                .filter(itemId -> !index.hasLastSince(itemId, horizon))
+                .collect(Collectors.toList());
+        if (!reachingArchive.isEmpty()) {
+            archiveRepository.findLastBookingsByItemIds(reachingArchive, now).forEach(index::offerLast);
+        }
+        return index;
+    }
+
+    private boolean mayReachArchive(BookingSearchCriteria criteria, LocalDateTime now) {
+        LocalDateTime horizon = horizon(now);
+        if (criteria.getStatuses() != null
+                && criteria.getStatuses().stream().allMatch(status -> status == Booking.BookingStatus.WAITING)) {
+            return false;
+        }
+        return (criteria.getStartAfter() == null || criteria.getStartAfter().isBefore(horizon))
+                && (criteria.getEndAfter() == null || criteria.getEndAfter().isBefore(horizon));
+    }
+
+    public boolean hasCompletedBooking(Long itemId, Long bookerId, LocalDateTime now) {
+        return !bookingRepository.findByItemIdAndBookerIdAndEndBeforeAndStatus(
+                itemId, bookerId, now, Booking.BookingStatus.APPROVED).isEmpty()
+                || archiveRepository.existsByItemIdAndBookerIdAndEndBeforeAndStatus(
+                itemId, bookerId, now, Booking.BookingStatus.APPROVED);
+    }
+}
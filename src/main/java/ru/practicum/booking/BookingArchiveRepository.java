@@ -0,0 +1,72 @@
+package ru.practicum.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<ArchivedBooking> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<ArchivedBooking> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<ArchivedBooking> findByBookerIdOrderByStartDescIdDesc(Long bookerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<ArchivedBooking> findByBookerIdAndEndBeforeOrderByStartDescIdDesc(
+            Long bookerId, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<ArchivedBooking> findByBookerIdAndStatusOrderByStartDescIdDesc(
+            Long bookerId, Booking.BookingStatus status, Pageable pageable);
+
+    @Query("SELECT b FROM ArchivedBooking b " +
+            "WHERE b.item.id = ?1 AND " +
+            "b.start < ?2 AND " +
+            "b.status = 'APPROVED' " +
+            "ORDER BY b.start DESC")
+    List<ArchivedBooking> findLastBooking(Long itemId, LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.booker.id AS bookerId, b.start AS start " +
+            "FROM ArchivedBooking b " +
+            "WHERE b.item.id IN ?1 AND b.status = 'APPROVED' AND b.start = " +
+            "(SELECT MAX(l.start) FROM ArchivedBooking l " +
+            "WHERE l.item = b.item AND l.status = 'APPROVED' AND l.start < ?2)")
+    List<ItemBookingEntry> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT b.id AS id, b.status AS status, i.id AS itemId, i.owner.id AS ownerId, " +
+            "b.booker.id AS bookerId, b.start AS start, b.end AS end " +
+            "FROM ArchivedBooking b JOIN b.item i " +
+            "WHERE b.id IN ?1")
+    List<BookingApprovalTarget> findApprovalTargets(Collection<Long> bookingIds);
+
+    boolean existsByItemIdAndBookerIdAndEndBeforeAndStatus(
+            Long itemId, Long bookerId, LocalDateTime end, Booking.BookingStatus status);
+
+    @Query("SELECT i.id AS itemId, COUNT(b.id) AS total, COUNT(b.id) AS past, " +
+            "SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END) AS rejected " +
+            "FROM ArchivedBooking b JOIN b.item i " +
+            "WHERE i.owner.id = ?1 " +
+            "GROUP BY i.id")
+    List<ItemBookingStats> aggregateByOwner(Long ownerId);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status " +
+            "FROM ArchivedBooking b WHERE b.booker.id = ?1")
+    List<BookingTimelineEntry> findTimelineByBookerId(Long bookerId);
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) " +
+            "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings WHERE id IN ?1",
+            nativeQuery = true)
+    int copyFromBookings(Collection<Long> bookingIds);
+}
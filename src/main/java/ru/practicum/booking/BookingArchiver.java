@@ -0,0 +1,76 @@
+package ru.practicum.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shard.ShardRouter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "shareit.booking.archive", name = "enabled", havingValue = "true")
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository archiveRepository;
+    private final BookingArchive bookingArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           BookingArchiveRepository archiveRepository,
+                           BookingArchive bookingArchive,
+                           TransactionTemplate transactionTemplate,
+                           ShardRouter shardRouter,
+                           @Value("${shareit.booking.archive.batch-size:1000}") int batchSize,
+                           @Value("${shareit.booking.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.bookingRepository = bookingRepository;
+        this.archiveRepository = archiveRepository;
+        this.bookingArchive = bookingArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.delay-ms:3600000}")
+    public void archive() {
+        LocalDateTime cutoff = bookingArchive.horizon(LocalDateTime.now());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            archiveShard(shard, cutoff);
+        }
+    }
+
+    private void archiveShard(int shard, LocalDateTime cutoff) {
+        long archived = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer moved = transactionTemplate.execute(status -> {
+                shardRouter.useShard(shard);
+                return archiveBatch(cutoff);
+            });
+            archived += moved == null ? 0 : moved;
+            if (moved == null || moved < batchSize) {
+                log.debug("Archived {} bookings ended before {} on shard {}", archived, cutoff, shard);
+                return;
+            }
+        }
+        log.warn("Archived {} bookings on shard {}, continuing on next run", archived, shard);
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = bookingRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archiveRepository.copyFromBookings(ids);
+        bookingRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,56 +12,126 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.booking.dto.BookingBatchApprovalDto;
+import ru.practicum.booking.dto.BookingDecisionResultDto;
 import ru.practicum.booking.dto.BookingDto;
 import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.idempotency.IdempotencyStore;
+import ru.practicum.user.VerifiedUserId;
+import ru.practicum.util.HttpHeaders;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingMapper bookingMapper;
+    private final BookingEventHub bookingEventHub;
+    private final IdempotencyStore idempotencyStore;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final String COMPACT_VIEW = "compact";
 
     @PostMapping
     public BookingResponseDto createBooking(
             @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BookingDto bookingDto) {
-        return bookingService.createBooking(userId, bookingDto);
+        return idempotencyStore.execute(idempotencyKey, userId, "booking.create", bookingDto,
+                BookingResponseDto.class, () -> bookingService.createBooking(userId, bookingDto));
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveBookings(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @Valid @RequestBody BookingBatchApprovalDto batch) {
+        return bookingService.approveBookings(userId, batch.getDecisions());
     }
 
     @PatchMapping("/{bookingId}")
     public BookingResponseDto approveBooking(
             @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @PathVariable Long bookingId,
             @RequestParam Boolean approved) {
-        return bookingService.approveBooking(userId, bookingId, approved);
+        return idempotencyStore.execute(idempotencyKey, userId, "booking.approve", List.of(bookingId, approved),
+                BookingResponseDto.class, () -> bookingService.approveBooking(userId, bookingId, approved));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @VerifiedUserId Long userId,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        return bookingEventHub.subscribe(userId, lastEventId);
     }
 
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getBooking(
+    public Object getBooking(
             @RequestHeader(USER_ID_HEADER) Long userId,
-            @PathVariable Long bookingId) {
-        return bookingService.getBookingById(userId, bookingId);
+            @PathVariable Long bookingId,
+            @RequestParam(defaultValue = "full") String view) {
+        BookingResponseDto booking = bookingService.getBookingById(userId, bookingId);
+        return COMPACT_VIEW.equalsIgnoreCase(view) ? bookingMapper.toCompactDto(booking) : booking;
     }
 
     @GetMapping
-    public List<BookingResponseDto> getUserBookings(
-            @RequestHeader(USER_ID_HEADER) Long userId,
+    public List<?> getUserBookings(
+            @VerifiedUserId Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getUserBookings(userId, state, from, size);
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "full") String view) {
+        return toView(bookingService.getUserBookings(userId, state, from, size), view);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getOwnerBookings(
-            @RequestHeader(USER_ID_HEADER) Long userId,
+    public List<?> getOwnerBookings(
+            @VerifiedUserId Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getOwnerBookings(userId, state, from, size);
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "full") String view) {
+        return toView(bookingService.getOwnerBookings(userId, state, from, size), view);
+    }
+
+    @GetMapping("/owner/search")
+    public List<?> searchOwnerBookings(
+            @VerifiedUserId Long userId,
+            @RequestParam(required = false) List<Long> itemId,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Long bookerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime rangeFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime rangeTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime afterStart,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "full") String view) {
+        BookingSearchCriteria criteria = new BookingSearchCriteria();
+        criteria.setItemIds(itemId);
+        criteria.setStatuses(BookingSearchCriteria.parseStatuses(status));
+        criteria.setBookerId(bookerId);
+        criteria.setEndAfter(rangeFrom);
+        criteria.setStartBefore(rangeTo);
+        criteria.setAfterStart(afterStart);
+        criteria.setAfterId(afterId);
+        return toView(bookingService.searchOwnerBookings(userId, criteria, size), view);
+    }
+
+    private List<?> toView(List<BookingResponseDto> bookings, String view) {
+        if (!COMPACT_VIEW.equalsIgnoreCase(view)) {
+            return bookings;
+        }
+        return bookings.stream()
+                .map(bookingMapper::toCompactDto)
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,211 @@
+package ru.practicum.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.booking.dto.BookingEventDto;
+import ru.practicum.event.DomainEvent;
+import ru.practicum.event.DomainEventListener;
+import ru.practicum.event.DomainEventType;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans booking events out to Server-Sent Events subscribers, addressed to the owner and the booker. Every
+ * subscriber has a bounded queue drained on a shared executor; a subscriber whose queue overflows is
+ * disconnected and resumes with {@code Last-Event-ID} from the replay buffer. When the missed events are no
+ * longer buffered the subscriber gets a {@code resync} event and should reload its bookings.
+ */
+@Slf4j
+@Component
+public class BookingEventHub implements DomainEventListener, DisposableBean {
+    private static final Set<DomainEventType> BOOKING_EVENTS = EnumSet.of(DomainEventType.BOOKING_CREATED,
+            DomainEventType.BOOKING_APPROVED, DomainEventType.BOOKING_REJECTED);
+    private static final String RESYNC = "resync";
+    private static final Entry HEARTBEAT = new Entry(0, null, null);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Deque<Entry> replay = new ArrayDeque<>();
+    private final ExecutorService sender;
+    private final Counter dropped;
+    private final int queueCapacity;
+    private final int replaySize;
+    private final long timeoutMs;
+    private long lastId;
+
+    public BookingEventHub(MeterRegistry meterRegistry,
+                           @Value("${shareit.booking.stream.queue-capacity:100}") int queueCapacity,
+                           @Value("${shareit.booking.stream.replay-size:1000}") int replaySize,
+                           @Value("${shareit.booking.stream.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${shareit.booking.stream.send-threads:4}") int sendThreads) {
+        this.queueCapacity = queueCapacity;
+        this.replaySize = replaySize;
+        this.timeoutMs = timeoutMs;
+        this.sender = Executors.newFixedThreadPool(sendThreads);
+        this.dropped = Counter.builder("shareit.booking.stream.dropped").register(meterRegistry);
+        Gauge.builder("shareit.booking.stream.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return BOOKING_EVENTS.contains(type);
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        BookingEventDto payload = new BookingEventDto(event.getAggregateId(), event.getItemId(),
+                event.getOwnerId(), event.getUserId(), event.getCreated());
+        Entry entry;
+        List<Subscriber> recipients = new ArrayList<>();
+        synchronized (replay) {
+            entry = new Entry(++lastId, event.getType().name(), payload);
+            replay.addLast(entry);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            recipients.addAll(subscribers.getOrDefault(payload.getOwnerId(), Set.of()));
+            if (!payload.getBookerId().equals(payload.getOwnerId())) {
+                recipients.addAll(subscribers.getOrDefault(payload.getBookerId(), Set.of()));
+            }
+        }
+        for (Subscriber subscriber : recipients) {
+            offer(subscriber, entry);
+        }
+    }
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+
+        List<Entry> missed = new ArrayList<>();
+        synchronized (replay) {
+            subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            if (lastEventId != null && lastEventId != lastId) {
+                boolean buffered = lastEventId < lastId && !replay.isEmpty()
+                        && replay.getFirst().id <= lastEventId + 1;
+                for (Entry entry : replay) {
+                    if (entry.id > lastEventId && entry.concerns(userId)) {
+                        missed.add(entry);
+                    }
+                }
+                if (!buffered || missed.size() >= queueCapacity) {
+                    missed.clear();
+                    missed.add(new Entry(lastId, RESYNC, null));
+                }
+            }
+            missed.forEach(entry -> offer(subscriber, entry));
+        }
+        offer(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> offer(subscriber, HEARTBEAT)));
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    private void offer(Subscriber subscriber, Entry entry) {
+        if (!subscriber.queue.offer(entry)) {
+            dropped.increment();
+            log.warn("Disconnecting slow booking stream subscriber of user {}", subscriber.userId);
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Entry entry;
+            while ((entry = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(entry.toEvent());
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Booking stream of user {} closed: {}", subscriber.userId, e.getMessage());
+                    remove(subscriber);
+                    subscriber.queue.clear();
+                    break;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Entry> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Entry> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String name;
+        private final BookingEventDto payload;
+
+        private Entry(long id, String name, BookingEventDto payload) {
+            this.id = id;
+            this.name = name;
+            this.payload = payload;
+        }
+
+        private boolean concerns(Long userId) {
+            return userId.equals(payload.getOwnerId()) || userId.equals(payload.getBookerId());
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().id(String.valueOf(id)).name(name);
+            return payload == null ? event.data("") : event.data(payload, MediaType.APPLICATION_JSON);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.booking;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
+import ru.practicum.booking.dto.BookingCompactDto;
 import ru.practicum.booking.dto.BookingDto;
 import ru.practicum.booking.dto.BookingResponseDto;
 import ru.practicum.item.Item;
@@ -21,6 +22,10 @@ public interface BookingMapper {
     @Mapping(target = "status", source = "status")
     BookingResponseDto toResponseDto(Booking booking);
 
+    @Mapping(target = "itemId", source = "item.id")
+    @Mapping(target = "bookerId", source = "booker.id")
+    BookingCompactDto toCompactDto(BookingResponseDto booking);
+
     @Mapping(target = "itemId", source = "item.id")
     @Mapping(target = "bookerId", source = "booker.id")
     BookingDto toDto(Booking booking);
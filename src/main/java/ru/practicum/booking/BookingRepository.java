@@ -1,39 +1,74 @@
 package ru.practicum.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdOrderByStartDescIdDesc(Long bookerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
             Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndEndBeforeOrderByStartDescIdDesc(
             Long bookerId, LocalDateTime end, Pageable pageable);
 
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndStartAfterOrderByStartDescIdDesc(
             Long bookerId, LocalDateTime start, Pageable pageable);
 
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBookerIdAndStatusOrderByStartDescIdDesc(
             Long bookerId, Booking.BookingStatus status, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(
-            Long ownerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(
-            Long ownerId, Booking.BookingStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItemOwnerIdAndStartAfterAndStatusInOrderByStartAsc(
+            Long ownerId, LocalDateTime start, Collection<Booking.BookingStatus> statuses, Pageable pageable);
+
+    @Query("SELECT i.id AS itemId, i.name AS itemName, " +
+            "COUNT(b.id) AS total, " +
+            "SUM(CASE WHEN b.start < ?2 AND b.end > ?2 THEN 1 ELSE 0 END) AS current, " +
+            "SUM(CASE WHEN b.end < ?2 THEN 1 ELSE 0 END) AS past, " +
+            "SUM(CASE WHEN b.start > ?2 THEN 1 ELSE 0 END) AS future, " +
+            "SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END) AS waiting, " +
+            "SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END) AS rejected, " +
+            "SUM(CASE WHEN b.status = 'APPROVED' AND b.start < ?2 AND b.end > ?3 " +
+            "THEN (LEAST(b.end, ?2) - GREATEST(b.start, ?3)) BY SECOND ELSE 0 END) AS bookedSeconds " +
+            "FROM Item i LEFT JOIN Booking b ON b.item = i " +
+            "WHERE i.owner.id = ?1 " +
+            "GROUP BY i.id, i.name " +
+            "ORDER BY i.id")
+    List<ItemBookingStats> aggregateByOwner(Long ownerId, LocalDateTime now, LocalDateTime windowStart);
+
+    @Query("SELECT b.id AS id, b.status AS status, i.id AS itemId, i.owner.id AS ownerId, " +
+            "b.booker.id AS bookerId, b.start AS start, b.end AS end " +
+            "FROM Booking b JOIN b.item i " +
+            "WHERE b.id IN ?1")
+    List<BookingApprovalTarget> findApprovalTargets(Collection<Long> bookingIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+            "SET b.status = CASE WHEN b.id IN ?1 THEN ?3 ELSE ?4 END " +
+            "WHERE b.id IN ?2 AND b.status = 'WAITING'")
+    int updateWaitingStatuses(Collection<Long> approvedIds, Collection<Long> bookingIds,
+                              Booking.BookingStatus approved, Booking.BookingStatus rejected);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.item.id = ?1 AND " +
@@ -49,6 +84,18 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "ORDER BY b.start ASC")
     List<Booking> findNextBooking(Long itemId, LocalDateTime now);
 
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.booker.id AS bookerId, b.start AS start " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.status = 'APPROVED' AND b.start = " +
+            "(SELECT MAX(l.start) FROM Booking l WHERE l.item = b.item AND l.status = 'APPROVED' AND l.start < ?2)")
+    List<ItemBookingEntry> findLastBookingsByOwner(Long ownerId, LocalDateTime now);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.booker.id AS bookerId, b.start AS start " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.status = 'APPROVED' AND b.start = " +
+            "(SELECT MIN(n.start) FROM Booking n WHERE n.item = b.item AND n.status = 'APPROVED' AND n.start > ?2)")
+    List<ItemBookingEntry> findNextBookingsByOwner(Long ownerId, LocalDateTime now);
+
     @Query("SELECT b FROM Booking b " +
             "WHERE b.item.id = ?1 AND " +
             "b.booker.id = ?2 AND " +
@@ -56,6 +103,19 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "b.status = 'APPROVED'")
     List<Booking> findCompletedBookings(Long itemId, Long bookerId, LocalDateTime now);
 
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status " +
+            "FROM Booking b WHERE b.booker.id = ?1")
+    List<BookingTimelineEntry> findTimelineByBookerId(Long bookerId);
+
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.end < ?1 AND b.status <> 'WAITING' " +
+            "ORDER BY b.end")
+    List<Long> findArchivableIds(LocalDateTime endBefore, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN ?1")
+    int deleteByIdIn(Collection<Long> bookingIds);
+
     List<Booking> findByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime end);
 
     List<Booking> findByItemIdAndBookerIdAndEndBeforeAndStatus(Long itemId, Long userId, LocalDateTime now, Booking.BookingStatus bookingStatus);
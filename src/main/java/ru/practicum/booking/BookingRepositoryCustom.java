@@ -0,0 +1,12 @@
+package ru.practicum.booking;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> search(BookingSearchCriteria criteria, Pageable pageable);
+
+    List<ArchivedBooking> searchArchive(BookingSearchCriteria criteria, Pageable pageable);
+}
@@ -0,0 +1,80 @@
+package ru.practicum.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> search(BookingSearchCriteria criteria, Pageable pageable) {
+        return search(Booking.class, criteria, pageable);
+    }
+
+    @Override
+    public List<ArchivedBooking> searchArchive(BookingSearchCriteria criteria, Pageable pageable) {
+        return search(ArchivedBooking.class, criteria, pageable);
+    }
+
+    private <T> List<T> search(Class<T> type, BookingSearchCriteria criteria, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> booking = query.from(type);
+        @SuppressWarnings("unchecked")
+        Join<T, ?> item = (Join<T, ?>) booking.fetch("item");
+        booking.fetch("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getOwnerId() != null) {
+            predicates.add(cb.equal(item.get("owner").get("id"), criteria.getOwnerId()));
+        }
+        if (criteria.getItemIds() != null) {
+            predicates.add(item.get("id").in(criteria.getItemIds()));
+        }
+        if (criteria.getBookerId() != null) {
+            predicates.add(cb.equal(booking.get("booker").get("id"), criteria.getBookerId()));
+        }
+        if (criteria.getStatuses() != null) {
+            predicates.add(booking.get("status").in(criteria.getStatuses()));
+        }
+        if (criteria.getStartAfter() != null) {
+            predicates.add(cb.greaterThan(start, criteria.getStartAfter()));
+        }
+        if (criteria.getStartBefore() != null) {
+            predicates.add(cb.lessThan(start, criteria.getStartBefore()));
+        }
+        if (criteria.getEndAfter() != null) {
+            predicates.add(cb.greaterThan(end, criteria.getEndAfter()));
+        }
+        if (criteria.getEndBefore() != null) {
+            predicates.add(cb.lessThan(end, criteria.getEndBefore()));
+        }
+        if (criteria.getAfterStart() != null) {
+            predicates.add(cb.or(cb.lessThan(start, criteria.getAfterStart()),
+                    cb.and(cb.equal(start, criteria.getAfterStart()), cb.lessThan(id, criteria.getAfterId()))));
+        }
+
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
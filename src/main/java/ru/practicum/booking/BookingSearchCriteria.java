@@ -0,0 +1,72 @@
+package ru.practicum.booking;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.exception.UnsupportedStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filters of an owner booking query, compiled into a single criteria query; null fields are not applied and
+ * all time bounds are exclusive. Results are ordered by start and id descending, and {@code afterStart} with
+ * {@code afterId} continue that order after the last booking of the previous page.
+ */
+@Data
+@NoArgsConstructor
+public class BookingSearchCriteria {
+    private Long ownerId;
+    private Collection<Long> itemIds;
+    private Long bookerId;
+    private Set<Booking.BookingStatus> statuses;
+    private LocalDateTime startAfter;
+    private LocalDateTime startBefore;
+    private LocalDateTime endAfter;
+    private LocalDateTime endBefore;
+    private LocalDateTime afterStart;
+    private Long afterId;
+
+    public static BookingSearchCriteria forOwnerState(Long ownerId, String state, LocalDateTime now) {
+        BookingSearchCriteria criteria = new BookingSearchCriteria();
+        criteria.setOwnerId(ownerId);
+        switch (state.toUpperCase()) {
+            case "ALL":
+                break;
+            case "CURRENT":
+                criteria.setStartBefore(now);
+                criteria.setEndAfter(now);
+                break;
+            case "PAST":
+                criteria.setEndBefore(now);
+                break;
+            case "FUTURE":
+                criteria.setStartAfter(now);
+                break;
+            case "WAITING":
+            case "REJECTED":
+                criteria.setStatuses(EnumSet.of(Booking.BookingStatus.valueOf(state.toUpperCase())));
+                break;
+            default:
+                throw new UnsupportedStatusException("Unknown state: " + state);
+        }
+        return criteria;
+    }
+
+    public static Set<Booking.BookingStatus> parseStatuses(List<String> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        Set<Booking.BookingStatus> parsed = EnumSet.noneOf(Booking.BookingStatus.class);
+        for (String status : statuses) {
+            try {
+                parsed.add(Booking.BookingStatus.valueOf(status.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedStatusException("Unknown status: " + status);
+            }
+        }
+        return parsed;
+    }
+}
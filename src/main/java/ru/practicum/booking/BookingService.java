@@ -1,5 +1,7 @@
 package ru.practicum.booking;
 
+import ru.practicum.booking.dto.BookingDecisionDto;
+import ru.practicum.booking.dto.BookingDecisionResultDto;
 import ru.practicum.booking.dto.BookingDto;
 import ru.practicum.booking.dto.BookingResponseDto;
 import java.util.List;
@@ -10,9 +12,13 @@ public interface BookingService {
 
     BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingDecisionResultDto> approveBookings(Long userId, List<BookingDecisionDto> decisions);
+
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
     List<BookingResponseDto> getUserBookings(Long userId, String state, Integer from, Integer size);
 
     List<BookingResponseDto> getOwnerBookings(Long userId, String state, Integer from, Integer size);
+
+    List<BookingResponseDto> searchOwnerBookings(Long userId, BookingSearchCriteria criteria, Integer size);
 }
@@ -4,35 +4,62 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.booking.dto.BookingDecisionDto;
+import ru.practicum.booking.dto.BookingDecisionResultDto;
+import ru.practicum.booking.dto.BookingDecisionResultDto.Result;
 import ru.practicum.booking.dto.BookingDto;
 import ru.practicum.booking.dto.BookingResponseDto;
 import ru.practicum.booking.handler.BookingStateHandler;
 import ru.practicum.booking.handler.BookingStateHandlerChain;
+import ru.practicum.event.DomainEventPublisher;
+import ru.practicum.event.DomainEventType;
 import ru.practicum.exception.AlreadyProcessedException;
 import ru.practicum.exception.ForbiddenException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.UnavailableItemException;
+import ru.practicum.exception.ValidationException;
 import ru.practicum.item.Item;
 import ru.practicum.item.ItemRepository;
+import ru.practicum.shard.ShardMerge;
+import ru.practicum.shard.ShardRouter;
 import ru.practicum.user.User;
 import ru.practicum.user.UserRepository;
+import ru.practicum.util.Pagination;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final Comparator<BookingResponseDto> BY_START_DESC =
+            Comparator.comparing(BookingResponseDto::getStart).thenComparing(BookingResponseDto::getId).reversed();
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
+    private final BookerTimeline bookerTimeline;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
     private final BookingStateHandlerChain handlerChain;
+    private final DomainEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
 
     @Override
     @Transactional
     public BookingResponseDto createBooking(Long userId, BookingDto bookingDto) {
+        shardRouter.useShardOf(bookingDto.getItemId());
         User booker = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         Item item = itemRepository.findById(bookingDto.getItemId())
@@ -51,13 +78,17 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(Booking.BookingStatus.WAITING);
 
         Booking savedBooking = bookingRepository.save(booking);
+        bookerTimeline.addAfterCommit(savedBooking);
+        eventPublisher.publish(DomainEventType.BOOKING_CREATED, savedBooking.getId(),
+                item.getId(), item.getOwner().getId(), userId);
         return bookingMapper.toResponseDto(savedBooking);
     }
 
     @Override
     @Transactional
     public BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
+        shardRouter.useShardOf(bookingId);
+        Booking booking = bookingArchive.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
 
         if (!booking.getItem().getOwner().getId().equals(userId)) {
@@ -72,12 +103,93 @@ public class BookingServiceImpl implements BookingService {
                 Booking.BookingStatus.REJECTED);
 
         Booking updatedBooking = bookingRepository.save(booking);
+        bookerTimeline.updateStatusAfterCommit(booking.getBooker().getId(), bookingId, booking.getStatus());
+        eventPublisher.publish(approved ? DomainEventType.BOOKING_APPROVED : DomainEventType.BOOKING_REJECTED,
+                updatedBooking.getId(), booking.getItem().getId(), userId, booking.getBooker().getId());
         return bookingMapper.toResponseDto(updatedBooking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approveBookings(Long userId, List<BookingDecisionDto> decisions) {
+        shardRouter.useOwnerShard(userId);
+        Map<Long, Boolean> requested = new LinkedHashMap<>();
+        Set<Long> contradictory = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Boolean previous = requested.putIfAbsent(decision.getBookingId(), decision.getApproved());
+            if (previous != null && !previous.equals(decision.getApproved())) {
+                contradictory.add(decision.getBookingId());
+            }
+        }
+
+        Map<Long, BookingApprovalTarget> targets = bookingArchive.findApprovalTargets(requested.keySet()).stream()
+                .collect(Collectors.toMap(BookingApprovalTarget::getId, Function.identity()));
+
+        Map<Long, BookingDecisionResultDto> results = new LinkedHashMap<>();
+        List<BookingApprovalTarget> accepted = new ArrayList<>();
+        List<Long> approvedIds = new ArrayList<>();
+        for (Map.Entry<Long, Boolean> entry : requested.entrySet()) {
+            Long bookingId = entry.getKey();
+            boolean approved = entry.getValue();
+            BookingApprovalTarget target = targets.get(bookingId);
+
+            if (contradictory.contains(bookingId)) {
+                results.put(bookingId, decisionResult(bookingId, Result.CONFLICT, "Conflicting decisions for booking"));
+            } else if (target == null) {
+                results.put(bookingId, decisionResult(bookingId, Result.NOT_FOUND, "Booking not found"));
+            } else if (!target.getOwnerId().equals(userId)) {
+                results.put(bookingId, decisionResult(bookingId, Result.FORBIDDEN, "Only owner can approve booking"));
+            } else if (target.getStatus() != Booking.BookingStatus.WAITING) {
+                results.put(bookingId, decisionResult(bookingId, Result.ALREADY_PROCESSED, "Booking already processed"));
+            } else if (approved && overlapsApproved(target, accepted, approvedIds)) {
+                results.put(bookingId, decisionResult(bookingId, Result.CONFLICT,
+                        "Booking overlaps another approval in this batch"));
+            } else {
+                accepted.add(target);
+                if (approved) {
+                    approvedIds.add(bookingId);
+                }
+                results.put(bookingId, decisionResult(bookingId, approved ? Result.APPROVED : Result.REJECTED, null));
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+
+        List<Long> acceptedIds = accepted.stream()
+                .map(BookingApprovalTarget::getId)
+                .collect(Collectors.toList());
+        int updated = bookingRepository.updateWaitingStatuses(approvedIds, acceptedIds,
+                Booking.BookingStatus.APPROVED, Booking.BookingStatus.REJECTED);
+        if (updated != accepted.size()) {
+            Map<Long, Booking.BookingStatus> current = bookingRepository.findApprovalTargets(acceptedIds).stream()
+                    .collect(Collectors.toMap(BookingApprovalTarget::getId, BookingApprovalTarget::getStatus));
+            accepted.removeIf(target -> {
+                Result expected = results.get(target.getId()).getResult();
+                if (current.get(target.getId()) == Booking.BookingStatus.valueOf(expected.name())) {
+                    return false;
+                }
+                results.put(target.getId(), decisionResult(target.getId(), Result.ALREADY_PROCESSED,
+                        "Booking already processed"));
+                return true;
+            });
+        }
+
+        for (BookingApprovalTarget target : accepted) {
+            boolean approved = results.get(target.getId()).getResult() == Result.APPROVED;
+            bookerTimeline.updateStatusAfterCommit(target.getBookerId(), target.getId(),
+                    approved ? Booking.BookingStatus.APPROVED : Booking.BookingStatus.REJECTED);
+            eventPublisher.publish(approved ? DomainEventType.BOOKING_APPROVED : DomainEventType.BOOKING_REJECTED,
+                    target.getId(), target.getItemId(), userId, target.getBookerId());
+        }
+        return new ArrayList<>(results.values());
+    }
+
     @Override
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        shardRouter.useShardOf(bookingId);
+        Booking booking = bookingArchive.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
 
         if (!booking.getBooker().getId().equals(userId) &&
@@ -90,12 +202,21 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingResponseDto> getUserBookings(Long userId, String state, Integer from, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
-
-        PageRequest page = PageRequest.of(from / size, size);
+        PageRequest page = Pagination.of(from, size);
+        LocalDateTime now = LocalDateTime.now();
+        if (bookerTimeline.isEnabled()) {
+            return hydrate(bookerTimeline.page(userId, state, now, page.getOffset(), size));
+        }
         BookingStateHandler handler = handlerChain.getHandler(state);
-        List<Booking> bookings = handler.handle(userId, page, LocalDateTime.now());
+        if (shardRouter.isSharded()) {
+            PageRequest shardPage = PageRequest.of(0, (int) page.getOffset() + size);
+            List<List<BookingResponseDto>> perShard = shardRouter.scatter(() ->
+                    handler.handle(userId, shardPage, now).stream()
+                            .map(bookingMapper::toResponseDto)
+                            .collect(Collectors.toList()));
+            return ShardMerge.mergeSorted(perShard, BY_START_DESC, page.getOffset(), size);
+        }
+        List<Booking> bookings = handler.handle(userId, page, now);
 
         return bookings.stream()
                 .map(bookingMapper::toResponseDto)
@@ -104,15 +225,65 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingResponseDto> getOwnerBookings(Long userId, String state, Integer from, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        shardRouter.useOwnerShard(userId);
+        LocalDateTime now = LocalDateTime.now();
+        BookingSearchCriteria criteria = BookingSearchCriteria.forOwnerState(userId, state, now);
+        List<Booking> bookings = bookingArchive.search(criteria, Pagination.of(from, size), now);
+
+        return bookings.stream()
+                .map(bookingMapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
 
-        PageRequest page = PageRequest.of(from / size, size);
-        BookingStateHandler handler = handlerChain.getHandler("OWNER_" + state);
-        List<Booking> bookings = handler.handle(userId, page, LocalDateTime.now());
+    @Override
+    public List<BookingResponseDto> searchOwnerBookings(Long userId, BookingSearchCriteria criteria, Integer size) {
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if ((criteria.getAfterStart() == null) != (criteria.getAfterId() == null)) {
+            throw new ValidationException("afterStart and afterId must be given together");
+        }
+        if (criteria.getEndAfter() != null && criteria.getStartBefore() != null
+                && !criteria.getEndAfter().isBefore(criteria.getStartBefore())) {
+            throw new ValidationException("Range start must be before range end");
+        }
+        if (criteria.getItemIds() != null && criteria.getItemIds().isEmpty()) {
+            criteria.setItemIds(null);
+        }
+        shardRouter.useOwnerShard(userId);
+        criteria.setOwnerId(userId);
+        List<Booking> bookings = bookingArchive.search(criteria, PageRequest.of(0, size), LocalDateTime.now());
 
         return bookings.stream()
                 .map(bookingMapper::toResponseDto)
                 .collect(Collectors.toList());
     }
+
+    private List<BookingResponseDto> hydrate(List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookingResponseDto> byId = new HashMap<>();
+        shardRouter.scatter(() -> bookingArchive.findAllById(bookingIds).stream()
+                        .map(bookingMapper::toResponseDto)
+                        .collect(Collectors.toList()))
+                .forEach(shard -> shard.forEach(booking -> byId.put(booking.getId(), booking)));
+        return bookingIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private boolean overlapsApproved(BookingApprovalTarget target, List<BookingApprovalTarget> accepted,
+                                     List<Long> approvedIds) {
+        return accepted.stream()
+                .filter(other -> approvedIds.contains(other.getId()))
+                .filter(other -> other.getItemId().equals(target.getItemId()))
+                .anyMatch(other -> other.getStart().isBefore(target.getEnd())
+                        && target.getStart().isBefore(other.getEnd()));
+    }
+
+    private static BookingDecisionResultDto decisionResult(Long bookingId, Result result, String error) {
+        return new BookingDecisionResultDto(bookingId, result, error);
+    }
 }
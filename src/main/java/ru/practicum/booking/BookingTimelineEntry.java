@@ -0,0 +1,14 @@
+package ru.practicum.booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingTimelineEntry {
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Booking.BookingStatus getStatus();
+}
@@ -0,0 +1,14 @@
+package ru.practicum.booking;
+
+import java.time.LocalDateTime;
+
+public interface ItemBookingEntry {
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStart();
+}
@@ -0,0 +1,111 @@
+package ru.practicum.booking;
+
+import ru.practicum.util.LongLongHashMap;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Last and next approved booking of each item in a list, so the list can be enriched from a few set-based
+ * queries instead of two per item. Each item gets a slot in packed primitive arrays, found through a
+ * {@link LongLongHashMap}; a booking id of zero means the item has none.
+ */
+public final class ItemBookingIndex {
+    private final LongLongHashMap slots;
+    private long[] lastIds;
+    private long[] lastBookerIds;
+    private long[] lastStarts;
+    private long[] nextIds;
+    private long[] nextBookerIds;
+    private long[] nextStarts;
+
+    ItemBookingIndex(int expectedItems) {
+        int capacity = Math.max(expectedItems, 1);
+        this.slots = new LongLongHashMap(capacity);
+        this.lastIds = new long[capacity];
+        this.lastBookerIds = new long[capacity];
+        this.lastStarts = new long[capacity];
+        this.nextIds = new long[capacity];
+        this.nextBookerIds = new long[capacity];
+        this.nextStarts = new long[capacity];
+    }
+
+    public boolean hasLast(long itemId) {
+        int slot = (int) slots.get(itemId, -1);
+        return slot >= 0 && lastIds[slot] != 0;
+    }
+
+    public long lastBookingId(long itemId) {
+        int slot = (int) slots.get(itemId, -1);
+        return slot < 0 ? 0 : lastIds[slot];
+    }
+
+    public long lastBookerId(long itemId) {
+        int slot = (int) slots.get(itemId, -1);
+        return slot < 0 ? 0 : lastBookerIds[slot];
+    }
+
+    public boolean hasNext(long itemId) {
+        int slot = (int) slots.get(itemId, -1);
+        return slot >= 0 && nextIds[slot] != 0;
+    }
+
+    public long nextBookingId(long itemId) {
+        int slot = (int) slots.get(itemId, -1);
+        return slot < 0 ? 0 : nextIds[slot];
+    }
+
+    public long nextBookerId(long itemId) {
+        int slot = (int) slots.get(itemId, -1);
+        return slot < 0 ? 0 : nextBookerIds[slot];
+    }
+
+    boolean hasLastSince(long itemId, LocalDateTime since) {
+        int slot = (int) slots.get(itemId, -1);
+        return slot >= 0 && lastIds[slot] != 0 && lastStarts[slot] >= epochSecond(since);
+    }
+
+    void offerLast(ItemBookingEntry entry) {
+        int slot = slotOf(entry.getItemId());
+        long start = epochSecond(entry.getStart());
+        if (lastIds[slot] == 0 || start > lastStarts[slot]) {
+            lastIds[slot] = entry.getId();
+            lastBookerIds[slot] = entry.getBookerId();
+            lastStarts[slot] = start;
+        }
+    }
+
+    void offerNext(ItemBookingEntry entry) {
+        int slot = slotOf(entry.getItemId());
+        long start = epochSecond(entry.getStart());
+        if (nextIds[slot] == 0 || start < nextStarts[slot]) {
+            nextIds[slot] = entry.getId();
+            nextBookerIds[slot] = entry.getBookerId();
+            nextStarts[slot] = start;
+        }
+    }
+
+    private int slotOf(long itemId) {
+        int slot = (int) slots.get(itemId, -1);
+        if (slot >= 0) {
+            return slot;
+        }
+        slot = slots.size();
+        if (slot == lastIds.length) {
+            int capacity = slot * 2;
+            lastIds = Arrays.copyOf(lastIds, capacity);
+            lastBookerIds = Arrays.copyOf(lastBookerIds, capacity);
+            lastStarts = Arrays.copyOf(lastStarts, capacity);
+            nextIds = Arrays.copyOf(nextIds, capacity);
+            nextBookerIds = Arrays.copyOf(nextBookerIds, capacity);
+            nextStarts = Arrays.copyOf(nextStarts, capacity);
+        }
+        slots.put(itemId, slot);
+        return slot;
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
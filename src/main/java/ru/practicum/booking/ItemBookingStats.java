@@ -0,0 +1,22 @@
+package ru.practicum.booking;
+
+public interface ItemBookingStats {
+
+    Long getItemId();
+
+    String getItemName();
+
+    Long getTotal();
+
+    Long getCurrent();
+
+    Long getPast();
+
+    Long getFuture();
+
+    Long getWaiting();
+
+    Long getRejected();
+
+    Long getBookedSeconds();
+}
@@ -0,0 +1,20 @@
+package ru.practicum.booking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchApprovalDto {
+    @NotEmpty
+    @Size(max = 100)
+    private List<@Valid BookingDecisionDto> decisions = new ArrayList<>();
+}
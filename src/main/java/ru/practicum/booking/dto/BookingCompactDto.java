@@ -0,0 +1,19 @@
+package ru.practicum.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCompactDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private String status;
+    private Long itemId;
+    private Long bookerId;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private Result result;
+    private String error;
+
+    public enum Result {
+        APPROVED, REJECTED, NOT_FOUND, FORBIDDEN, ALREADY_PROCESSED, CONFLICT
+    }
+}
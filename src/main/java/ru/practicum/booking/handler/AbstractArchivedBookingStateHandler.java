@@ -0,0 +1,19 @@
+package ru.practicum.booking.handler;
+
+import ru.practicum.booking.BookingArchive;
+import ru.practicum.booking.BookingArchiveRepository;
+import ru.practicum.booking.BookingRepository;
+
+public abstract class AbstractArchivedBookingStateHandler extends AbstractBookingStateHandler {
+    protected final BookingArchive bookingArchive;
+    protected final BookingArchiveRepository archiveRepository;
+
+    protected AbstractArchivedBookingStateHandler(BookingRepository bookingRepository,
+                                                  BookingArchive bookingArchive,
+                                                  BookingArchiveRepository archiveRepository,
+                                                  String supportedState) {
+        super(bookingRepository, supportedState);
+        this.bookingArchive = bookingArchive;
+        this.archiveRepository = archiveRepository;
+    }
+}
@@ -2,19 +2,25 @@ package ru.practicum.booking.handler;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingArchive;
+import ru.practicum.booking.BookingArchiveRepository;
 import ru.practicum.booking.BookingRepository;
 import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
-public class AllBookingStateHandler extends AbstractBookingStateHandler {
-    public AllBookingStateHandler(BookingRepository bookingRepository) {
-        super(bookingRepository, "ALL");
+public class AllBookingStateHandler extends AbstractArchivedBookingStateHandler {
+    public AllBookingStateHandler(BookingRepository bookingRepository,
+                                  BookingArchive bookingArchive,
+                                  BookingArchiveRepository archiveRepository) {
+        super(bookingRepository, bookingArchive, archiveRepository, "ALL");
     }
 
     @Override
     public List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now) {
-        return bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
+        return bookingArchive.page(pageable, now,
+                p -> bookingRepository.findByBookerIdOrderByStartDescIdDesc(userId, p),
+                p -> archiveRepository.findByBookerIdOrderByStartDescIdDesc(userId, p));
     }
 }
@@ -15,7 +15,7 @@ public class CurrentBookingStateHandler extends AbstractBookingStateHandler {
 
     @Override
     public List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now) {
-        return bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+        return bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
                 userId, now, now, pageable);
     }
 }
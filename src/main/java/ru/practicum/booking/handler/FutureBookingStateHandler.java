@@ -15,6 +15,6 @@ public class FutureBookingStateHandler extends AbstractBookingStateHandler {
 
     @Override
     public List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now) {
-        return bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now, pageable);
+        return bookingRepository.findByBookerIdAndStartAfterOrderByStartDescIdDesc(userId, now, pageable);
     }
 }
@@ -2,19 +2,25 @@ package ru.practicum.booking.handler;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingArchive;
+import ru.practicum.booking.BookingArchiveRepository;
 import ru.practicum.booking.BookingRepository;
 import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
-public class PastBookingStateHandler extends AbstractBookingStateHandler {
-    public PastBookingStateHandler(BookingRepository bookingRepository) {
-        super(bookingRepository, "PAST");
+public class PastBookingStateHandler extends AbstractArchivedBookingStateHandler {
+    public PastBookingStateHandler(BookingRepository bookingRepository,
+                                   BookingArchive bookingArchive,
+                                   BookingArchiveRepository archiveRepository) {
+        super(bookingRepository, bookingArchive, archiveRepository, "PAST");
     }
 
     @Override
     public List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now) {
-        return bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
+        return bookingArchive.page(pageable, now,
+                p -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDescIdDesc(userId, now, p),
+                p -> archiveRepository.findByBookerIdAndEndBeforeOrderByStartDescIdDesc(userId, now, p));
     }
 }
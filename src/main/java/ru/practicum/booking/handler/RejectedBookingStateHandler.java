@@ -2,6 +2,8 @@ package ru.practicum.booking.handler;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingArchive;
+import ru.practicum.booking.BookingArchiveRepository;
 import ru.practicum.booking.BookingRepository;
 import ru.practicum.booking.Booking.BookingStatus;
 import org.springframework.data.domain.Pageable;
@@ -9,14 +11,19 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
-public class RejectedBookingStateHandler extends AbstractBookingStateHandler {
-    public RejectedBookingStateHandler(BookingRepository bookingRepository) {
-        super(bookingRepository, "REJECTED");
+public class RejectedBookingStateHandler extends AbstractArchivedBookingStateHandler {
+    public RejectedBookingStateHandler(BookingRepository bookingRepository,
+                                       BookingArchive bookingArchive,
+                                       BookingArchiveRepository archiveRepository) {
+        super(bookingRepository, bookingArchive, archiveRepository, "REJECTED");
     }
 
     @Override
     public List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now) {
-        return bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                userId, BookingStatus.REJECTED, pageable);
+        return bookingArchive.page(pageable, now,
+                p -> bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(
+                        userId, BookingStatus.REJECTED, p),
+                p -> archiveRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(
+                        userId, BookingStatus.REJECTED, p));
     }
 }
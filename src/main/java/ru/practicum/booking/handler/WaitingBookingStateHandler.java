@@ -16,7 +16,7 @@ public class WaitingBookingStateHandler extends AbstractBookingStateHandler {
 
     @Override
     public List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now) {
-        return bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
+        return bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(
                 userId, BookingStatus.WAITING, pageable);
     }
 }
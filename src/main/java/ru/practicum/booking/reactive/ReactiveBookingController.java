@@ -0,0 +1,43 @@
+package ru.practicum.booking.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.user.VerifiedUserId;
+import ru.practicum.util.Pagination;
+
+@RestController
+@RequestMapping(path = "/bookings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.reactive", name = "enabled", havingValue = "true")
+public class ReactiveBookingController {
+    private final ReactiveBookingRepository reactiveBookingRepository;
+
+    @GetMapping
+    public Flux<BookingResponseDto> getUserBookings(
+            @VerifiedUserId Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size) {
+        return reactiveBookingRepository.findBookerBookings(userId, state, offset(from, size), size);
+    }
+
+    @GetMapping("/owner")
+    public Flux<BookingResponseDto> getOwnerBookings(
+            @VerifiedUserId Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size) {
+        return reactiveBookingRepository.findOwnerBookings(userId, state, offset(from, size), size);
+    }
+
+    private static long offset(Integer from, Integer size) {
+        return Pagination.of(from, size).getOffset();
+    }
+}
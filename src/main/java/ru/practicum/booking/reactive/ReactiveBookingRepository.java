@@ -0,0 +1,128 @@
+package ru.practicum.booking.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.exception.UnsupportedStatusException;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of the booking state handlers. Each state maps to the same predicate its
+ * {@code BookingStateHandler} uses; states that can reach finished bookings also read {@code bookings_archive}.
+ * The pool is private so that no R2DBC {@code ConnectionFactory} bean competes with the JDBC data source.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "shareit.reactive", name = "enabled", havingValue = "true")
+public class ReactiveBookingRepository implements DisposableBean {
+    private static final Map<String, String> STATE_PREDICATES = Map.of(
+            "ALL", "TRUE",
+            "CURRENT", "b.start_date < :now AND b.end_date > :now",
+            "PAST", "b.end_date < :now",
+            "FUTURE", "b.start_date > :now",
+            "WAITING", "b.status = 'WAITING'",
+            "REJECTED", "b.status = 'REJECTED'");
+    private static final Set<String> ARCHIVED_STATES = Set.of("ALL", "PAST", "REJECTED");
+    private static final String COLUMNS = "SELECT b.id, b.start_date, b.end_date, b.status, "
+            + "u.id AS booker_id, u.name AS booker_name, u.email AS booker_email, "
+            + "i.id AS item_id, i.name AS item_name, i.description AS item_description, "
+            + "i.available AS item_available, i.request_id AS item_request_id ";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBookingRepository(@Value("${shareit.reactive.url}") String url,
+                                     @Value("${shareit.reactive.username:}") String username,
+                                     @Value("${shareit.reactive.password:}") String password,
+                                     @Value("${shareit.reactive.pool-size:10}") int poolSize,
+                                     @Value("${shareit.sharding.enabled:false}") boolean sharding) {
+        if (sharding) {
+            throw new IllegalStateException("shareit.reactive reads a single database and cannot be used with sharding");
+        }
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("shareit-reactive")
+                .maxSize(poolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+    }
+
+    public Flux<BookingResponseDto> findBookerBookings(Long bookerId, String state, long offset, int limit) {
+        return find("b.booker_id = :userId", bookerId, state, offset, limit);
+    }
+
+    public Flux<BookingResponseDto> findOwnerBookings(Long ownerId, String state, long offset, int limit) {
+        return find("i.owner_id = :userId", ownerId, state, offset, limit);
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    private Flux<BookingResponseDto> find(String scope, Long userId, String state, long offset, int limit) {
+        String normalized = state.toUpperCase();
+        String predicate = STATE_PREDICATES.get(normalized);
+        if (predicate == null) {
+            throw new UnsupportedStatusException("Unknown state: " + state);
+        }
+        String where = " WHERE " + scope + " AND " + predicate;
+        StringBuilder sql = new StringBuilder(COLUMNS)
+                .append("FROM bookings b JOIN items i ON i.id = b.item_id JOIN users u ON u.id = b.booker_id")
+                .append(where);
+        if (ARCHIVED_STATES.contains(normalized)) {
+            sql.append(" UNION ALL ").append(COLUMNS)
+                    .append("FROM bookings_archive b JOIN items i ON i.id = b.item_id "
+                            + "JOIN users u ON u.id = b.booker_id")
+                    .append(where);
+        }
+        sql.append(" ORDER BY start_date DESC, id DESC LIMIT :limit OFFSET :offset");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("userId", userId)
+                .bind("limit", limit)
+                .bind("offset", offset);
+        if (predicate.contains(":now")) {
+            spec = spec.bind("now", LocalDateTime.now());
+        }
+        return spec.map(ReactiveBookingRepository::toDto).all();
+    }
+
+    private static BookingResponseDto toDto(Readable row) {
+        UserDto booker = new UserDto();
+        booker.setId(row.get("booker_id", Long.class));
+        booker.setName(row.get("booker_name", String.class));
+        booker.setEmail(row.get("booker_email", String.class));
+
+        ItemDto item = new ItemDto();
+        item.setId(row.get("item_id", Long.class));
+        item.setName(row.get("item_name", String.class));
+        item.setDescription(row.get("item_description", String.class));
+        item.setAvailable(row.get("item_available", Boolean.class));
+        item.setRequestId(row.get("item_request_id", Long.class));
+
+        return new BookingResponseDto(
+                row.get("id", Long.class),
+                row.get("start_date", LocalDateTime.class),
+                row.get("end_date", LocalDateTime.class),
+                row.get("status", String.class),
+                booker,
+                item);
+    }
+}
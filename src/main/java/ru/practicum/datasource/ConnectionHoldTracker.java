@@ -0,0 +1,133 @@
+package ru.practicum.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each pooled connection is held as {@code shareit.datasource.connection.hold}, tagged with
+ * the pool and the transactional method that used it. The method is read from the transaction name when the
+ * first statement is prepared: Spring names a transaction only after its begin has already taken the
+ * connection.
+ */
+@Component
+public class ConnectionHoldTracker {
+    static final String NO_TRANSACTION = "none";
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public ConnectionHoldTracker(MeterRegistry meterRegistry,
+                                 @Value("${shareit.datasource.hold-tracking.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    public DataSource track(DataSource pool, String poolName) {
+        return enabled ? new TrackedDataSource(pool, poolName) : pool;
+    }
+
+    private void record(String pool, String method, long nanos) {
+        Timer.builder("shareit.datasource.connection.hold")
+                .description("Time a pooled connection was held, by pool and transactional method")
+                .tags("pool", pool, "method", method)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String currentMethod() {
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null) {
+            return NO_TRANSACTION;
+        }
+        int methodDot = name.lastIndexOf('.');
+        int classDot = methodDot > 0 ? name.lastIndexOf('.', methodDot - 1) : -1;
+        return name.substring(classDot + 1);
+    }
+
+    private final class TrackedDataSource extends DelegatingDataSource implements Closeable {
+        private final String poolName;
+
+        TrackedDataSource(DataSource pool, String poolName) {
+            super(pool);
+            this.poolName = poolName;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return track(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return track(super.getConnection(username, password));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (getTargetDataSource() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+
+        private Connection track(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new HoldHandler(connection, poolName));
+        }
+    }
+
+    private final class HoldHandler implements InvocationHandler {
+        private final Connection target;
+        private final String poolName;
+        private final long acquired = System.nanoTime();
+        private String method;
+        private boolean closed;
+
+        HoldHandler(Connection target, String poolName) {
+            this.target = target;
+            this.poolName = poolName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method invoked, Object[] args) throws Throwable {
+            switch (invoked.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        record(poolName, method != null ? method : NO_TRANSACTION, System.nanoTime() - acquired);
+                    }
+                    break;
+                default:
+                    if (method == null && STATEMENT_METHODS.contains(invoked.getName())) {
+                        method = currentMethod();
+                    }
+            }
+            try {
+                return invoked.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds connection hold tracking to the pool Spring Boot auto-configures when the read pool split, routing and
+ * sharding are all disabled; the pools those create are tracked by {@link HikariPools}.
+ */
+@Component
+public class ConnectionHoldTrackingPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<ConnectionHoldTracker> holdTracker;
+
+    public ConnectionHoldTrackingPostProcessor(ObjectProvider<ConnectionHoldTracker> holdTracker) {
+        this.holdTracker = holdTracker;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource pool) {
+            return holdTracker.getObject().track(pool, pool.getPoolName());
+        }
+        return bean;
+    }
+}
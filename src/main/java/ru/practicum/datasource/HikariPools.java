@@ -0,0 +1,65 @@
+package ru.practicum.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Builds the Hikari pools that the read pool split, routing and sharding create outside Spring Boot's
+ * auto-configuration, so they get the same {@code spring.datasource.hikari.*} tuning, {@code hikaricp.*} pool
+ * metrics and connection hold tracking as the default pool.
+ */
+@Component
+public class HikariPools {
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    private final Environment environment;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ConnectionHoldTracker holdTracker;
+
+    public HikariPools(Environment environment, ObjectProvider<MeterRegistry> meterRegistry,
+                       ConnectionHoldTracker holdTracker) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.holdTracker = holdTracker;
+    }
+
+    public DataSource createOnPrimary(String poolName, DataSourceProperties dataSourceProperties,
+                                      Integer maximumPoolSize, boolean readOnly) {
+        return create(poolName,
+                dataSourceProperties.determineDriverClassName(),
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                maximumPoolSize, readOnly);
+    }
+
+    public DataSource create(String poolName, String driverClassName, String url, String username, String password,
+                             Integer maximumPoolSize, boolean readOnly) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(driverClassName)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        pool.setReadOnly(readOnly);
+        if (maximumPoolSize != null) {
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setMinimumIdle(Math.min(pool.getMinimumIdle(), maximumPoolSize));
+        }
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return holdTracker.track(pool, poolName);
+    }
+}
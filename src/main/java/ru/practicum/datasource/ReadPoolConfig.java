@@ -0,0 +1,44 @@
+package ru.practicum.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Splits the single database into a write pool and a read pool when neither routing nor sharding is enabled.
+ * Read-only transactions such as booking lists and searches borrow from the read pool, so a burst of slow reads
+ * cannot take the connections that writes such as creating or approving a booking need. With routing enabled
+ * the read pool serves the reads that stay on the primary instead.
+ */
+@Configuration
+@ConditionalOnExpression("${shareit.datasource.read-pool.enabled:true}"
+        + " and !${shareit.datasource.routing.enabled:false} and !${shareit.sharding.enabled:false}")
+@EnableConfigurationProperties(ReadPoolProperties.class)
+public class ReadPoolConfig {
+    static final String PRIMARY_POOL = "shareit-primary";
+    static final String PRIMARY_READ_POOL = "shareit-primary-read";
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteSplitDataSource(DataSourceProperties dataSourceProperties,
+                                                               ReadPoolProperties readPool,
+                                                               HikariPools hikariPools) {
+        DataSource primary = hikariPools.createOnPrimary(PRIMARY_POOL, dataSourceProperties, null, false);
+        DataSource primaryRead = hikariPools.createOnPrimary(PRIMARY_READ_POOL, dataSourceProperties,
+                readPool.getMaximumPoolSize(), true);
+        return new ReadWriteRoutingDataSource(primary, primaryRead, List.of(), Duration.ZERO, 0);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteSplitDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteSplitDataSource);
+    }
+}
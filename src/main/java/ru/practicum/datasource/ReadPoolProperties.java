@@ -0,0 +1,11 @@
+package ru.practicum.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.datasource.read-pool")
+public class ReadPoolProperties {
+    private boolean enabled = true;
+    private int maximumPoolSize = 10;
+}
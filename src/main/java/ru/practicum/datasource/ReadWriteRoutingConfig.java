@@ -0,0 +1,57 @@
+package ru.practicum.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ReadWriteRoutingProperties.class, ReadPoolProperties.class})
+public class ReadWriteRoutingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                        ReadWriteRoutingProperties routing,
+                                                        ReadPoolProperties readPool,
+                                                        HikariPools hikariPools) {
+        DataSource primary = hikariPools.createOnPrimary(ReadPoolConfig.PRIMARY_POOL, dataSourceProperties,
+                null, false);
+        DataSource primaryRead = readPool.isEnabled()
+                ? hikariPools.createOnPrimary(ReadPoolConfig.PRIMARY_READ_POOL, dataSourceProperties,
+                        readPool.getMaximumPoolSize(), true)
+                : null;
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReadWriteRoutingProperties.Replica replica : routing.getReplicas()) {
+            replicas.add(hikariPools.create("shareit-replica-" + replicas.size(),
+                    dataSourceProperties.determineDriverClassName(),
+                    replica.getUrl(),
+                    replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername(),
+                    replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword(),
+                    replica.getMaximumPoolSize(), true));
+        }
+        return new ReadWriteRoutingDataSource(primary, primaryRead, replicas,
+                routing.getStickiness(), routing.getMaxTrackedWriters());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RoutingUserInterceptor());
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas in round-robin order and everything else to the primary.
+ * A user whose write transaction committed within the stickiness window keeps reading from the primary,
+ * so replica lag never hides their own changes. Reads that stay on the primary use the primary read pool
+ * when one is given, so they never compete with writes for connections. Must be wrapped in a
+ * {@code LazyConnectionDataSourceProxy} so the connection is fetched after the transaction's read-only flag
+ * is known.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    static final String PRIMARY = "primary";
+    static final String PRIMARY_READ = "primary-read";
+
+    private final List<DataSource> targets = new ArrayList<>();
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Cache<Long, Boolean> recentWriters;
+    private final String primaryReadKey;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource primaryRead, List<DataSource> replicas,
+                                      Duration stickiness, long maxTrackedWriters) {
+        Map<Object, Object> lookup = new HashMap<>();
+        lookup.put(PRIMARY, primary);
+        targets.add(primary);
+        if (primaryRead != null) {
+            lookup.put(PRIMARY_READ, primaryRead);
+            targets.add(primaryRead);
+        }
+        this.primaryReadKey = primaryRead != null ? PRIMARY_READ : PRIMARY;
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            lookup.put(key, replicas.get(i));
+            replicaKeys.add(key);
+            targets.add(replicas.get(i));
+        }
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .maximumSize(maxTrackedWriters)
+                .build();
+        setTargetDataSources(lookup);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = RoutingUserContext.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriterAfterCommit(userId);
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || (userId != null && recentWriters.getIfPresent(userId) != null)) {
+            log.debug("Routing read of user {} to {}", userId, primaryReadKey);
+            return primaryReadKey;
+        }
+        String key = replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+        log.debug("Routing read of user {} to {}", userId, key);
+        return key;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource target : targets) {
+            if (target instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void rememberWriterAfterCommit(Long userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+}
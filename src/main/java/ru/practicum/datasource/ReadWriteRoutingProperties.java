@@ -0,0 +1,25 @@
+package ru.practicum.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.datasource.routing")
+public class ReadWriteRoutingProperties {
+    private boolean enabled = false;
+    private Duration stickiness = Duration.ofSeconds(5);
+    private long maxTrackedWriters = 100_000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private Integer maximumPoolSize;
+    }
+}
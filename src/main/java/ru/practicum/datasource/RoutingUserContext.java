@@ -0,0 +1,20 @@
+package ru.practicum.datasource;
+
+public final class RoutingUserContext {
+    private static final ThreadLocal<Long> USER_ID = new ThreadLocal<>();
+
+    private RoutingUserContext() {
+    }
+
+    public static void set(Long userId) {
+        USER_ID.set(userId);
+    }
+
+    public static Long get() {
+        return USER_ID.get();
+    }
+
+    public static void clear() {
+        USER_ID.remove();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.util.HttpHeaders;
+
+public class RoutingUserInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = request.getHeader(HttpHeaders.USER_ID_HEADER);
+        if (userId != null) {
+            try {
+                RoutingUserContext.set(Long.valueOf(userId));
+            } catch (NumberFormatException ignored) {
+                // anonymous requests are never pinned to the primary
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RoutingUserContext.clear();
+    }
+}
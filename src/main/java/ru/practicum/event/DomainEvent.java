@@ -0,0 +1,25 @@
+package ru.practicum.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class DomainEvent {
+    private final Long id;
+    private final DomainEventType type;
+    private final Long aggregateId;
+    private final Long itemId;
+    private final Long ownerId;
+    private final Long userId;
+    private final LocalDateTime created;
+
+    static DomainEvent from(OutboxEvent event) {
+        return new DomainEvent(event.getId(), event.getType(), event.getAggregateId(),
+                event.getItemId(), event.getOwnerId(), event.getUserId(), event.getCreated());
+    }
+}
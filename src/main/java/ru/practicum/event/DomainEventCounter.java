@@ -0,0 +1,35 @@
+package ru.practicum.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class DomainEventCounter implements DomainEventListener {
+    private final Map<DomainEventType, LongAdder> counters = new EnumMap<>(DomainEventType.class);
+
+    public DomainEventCounter() {
+        for (DomainEventType type : DomainEventType.values()) {
+            counters.put(type, new LongAdder());
+        }
+    }
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return true;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        counters.get(event.getType()).increment();
+        log.debug("Dispatched {}", event);
+    }
+
+    public long getCount(DomainEventType type) {
+        return counters.get(type).sum();
+    }
+}
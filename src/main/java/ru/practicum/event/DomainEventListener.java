@@ -0,0 +1,8 @@
+package ru.practicum.event;
+
+public interface DomainEventListener {
+
+    boolean supports(DomainEventType type);
+
+    void onEvent(DomainEvent event);
+}
@@ -0,0 +1,29 @@
+package ru.practicum.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEventType type, Long aggregateId, Long itemId, Long ownerId, Long userId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(aggregateId);
+        event.setItemId(itemId);
+        event.setOwnerId(ownerId);
+        event.setUserId(userId);
+        event.setCreated(LocalDateTime.now());
+        outboxEventRepository.save(event);
+        log.debug("Stored {} event for aggregate {} in outbox", type, aggregateId);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.event;
+
+public enum DomainEventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    ITEM_UPDATED,
+    COMMENT_ADDED
+}
@@ -0,0 +1,47 @@
+package ru.practicum.event;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e.id FROM OutboxEvent e " +
+            "WHERE e.processedAt IS NULL AND e.attempts < ?1 " +
+            "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= ?2) " +
+            "AND (e.claimedUntil IS NULL OR e.claimedUntil <= ?2) " +
+            "ORDER BY e.id")
+    List<Long> findDueIds(int maxAttempts, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedBy = ?2, e.claimedUntil = ?4 " +
+            "WHERE e.id IN ?1 AND e.processedAt IS NULL " +
+            "AND (e.claimedUntil IS NULL OR e.claimedUntil <= ?3)")
+    int claim(Collection<Long> ids, String claimToken, LocalDateTime now, LocalDateTime claimedUntil);
+
+    List<OutboxEvent> findByClaimedByOrderById(String claimToken);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = ?3, e.claimedBy = NULL, e.claimedUntil = NULL " +
+            "WHERE e.id IN ?1 AND e.claimedBy = ?2")
+    int markProcessed(Collection<Long> ids, String claimToken, LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = ?3, e.deliveredTo = ?4, e.nextAttemptAt = ?5, " +
+            "e.claimedBy = NULL, e.claimedUntil = NULL " +
+            "WHERE e.id = ?1 AND e.claimedBy = ?2")
+    int release(Long id, String claimToken, int attempts, String deliveredTo, LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < ?1")
+    int deleteProcessedBefore(LocalDateTime threshold);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.attempts >= ?1 AND e.created < ?2")
+    int deleteDeadBefore(int maxAttempts, LocalDateTime threshold);
+}
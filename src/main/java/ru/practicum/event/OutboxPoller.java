@@ -0,0 +1,200 @@
+package ru.practicum.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+import ru.practicum.shard.ShardRouter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Dispatches outbox events to the listeners. Each batch is first claimed in its own short transaction: the due
+ * rows are stamped with a random claim token and a lease of {@code claim-timeout-ms}, so concurrent pollers on
+ * other instances skip them. Listeners run after the claim commits, outside any transaction, and the outcome is
+ * written back only while the claim is still held. A poller that dies mid-batch leaves its rows to be claimed
+ * again once the lease runs out, so listeners must tolerate an occasional repeat.
+ * Delivery is tracked per listener, so a retry only reaches the listeners that failed. Failed events wait
+ * {@code retry-backoff-ms}, doubled per attempt, before the next try; after {@code max-attempts} they are counted
+ * as dead and removed after {@code dead-retention-hours}.
+ */
+@Slf4j
+@Component
+public class OutboxPoller {
+    private static final String DELIVERED_SEPARATOR = ",";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<DomainEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Counter deadEvents;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final int maxAttempts;
+    private final long retentionHours;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final long deadRetentionHours;
+    private final long claimTimeoutMs;
+
+    public OutboxPoller(OutboxEventRepository outboxEventRepository,
+                        List<DomainEventListener> listeners,
+                        TransactionTemplate transactionTemplate,
+                        ShardRouter shardRouter,
+                        MeterRegistry meterRegistry,
+                        @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                        @Value("${shareit.outbox.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                        @Value("${shareit.outbox.max-attempts:5}") int maxAttempts,
+                        @Value("${shareit.outbox.retention-hours:24}") long retentionHours,
+                        @Value("${shareit.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                        @Value("${shareit.outbox.max-retry-backoff-ms:60000}") long maxRetryBackoffMs,
+                        @Value("${shareit.outbox.dead-retention-hours:168}") long deadRetentionHours,
+                        @Value("${shareit.outbox.claim-timeout-ms:60000}") long claimTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.listeners = listeners;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.deadEvents = Counter.builder("shareit.outbox.events.dead")
+                .description("Outbox events that exhausted their delivery attempts")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.maxAttempts = maxAttempts;
+        this.retentionHours = retentionHours;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.deadRetentionHours = deadRetentionHours;
+        this.claimTimeoutMs = claimTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-delay-ms:500}")
+    public void poll() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            pollShard(shard);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.cleanup-delay-ms:3600000}")
+    public void cleanup() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            LocalDateTime now = LocalDateTime.now();
+            Integer deleted = transactionTemplate.execute(status -> {
+                shardRouter.useShard(target);
+                return outboxEventRepository.deleteProcessedBefore(now.minusHours(retentionHours));
+            });
+            Integer dead = transactionTemplate.execute(status -> {
+                shardRouter.useShard(target);
+                return outboxEventRepository.deleteDeadBefore(maxAttempts, now.minusHours(deadRetentionHours));
+            });
+            log.debug("Removed {} processed and {} dead outbox events from shard {}", deleted, dead, shard);
+        }
+    }
+
+    private void pollShard(int shard) {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            if (dispatchBatch(shard) < batchSize) {
+                return;
+            }
+        }
+        log.warn("Outbox backlog exceeds {} events, continuing on next poll", batchSize * maxBatchesPerPoll);
+    }
+
+    private int dispatchBatch(int shard) {
+        String claimToken = UUID.randomUUID().toString();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            shardRouter.useShard(shard);
+            return claim(claimToken, LocalDateTime.now());
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> processed = new ArrayList<>(batch.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (OutboxEvent outboxEvent : batch) {
+            Set<String> delivered = deliveredTo(outboxEvent);
+            if (dispatch(DomainEvent.from(outboxEvent), delivered)) {
+                processed.add(outboxEvent.getId());
+            } else {
+                outboxEvent.setDeliveredTo(delivered.isEmpty() ? null : String.join(DELIVERED_SEPARATOR, delivered));
+                failed.add(outboxEvent);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            shardRouter.useShard(shard);
+            if (!processed.isEmpty()
+                    && outboxEventRepository.markProcessed(processed, claimToken, now) < processed.size()) {
+                log.warn("Outbox claim {} expired before its batch was recorded", claimToken);
+            }
+            failed.forEach(event -> scheduleRetry(event, claimToken, now));
+        });
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claim(String claimToken, LocalDateTime now) {
+        List<Long> due = outboxEventRepository.findDueIds(maxAttempts, now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        outboxEventRepository.claim(due, claimToken, now, now.plusNanos(claimTimeoutMs * 1_000_000));
+        return outboxEventRepository.findByClaimedByOrderById(claimToken);
+    }
+
+    private boolean dispatch(DomainEvent event, Set<String> delivered) {
+        boolean complete = true;
+        for (DomainEventListener listener : listeners) {
+            String name = listenerName(listener);
+            if (!listener.supports(event.getType()) || delivered.contains(name)) {
+                continue;
+            }
+            try {
+                listener.onEvent(event);
+                delivered.add(name);
+            } catch (RuntimeException e) {
+                log.error("Listener {} failed on event {}", name, event, e);
+                complete = false;
+            }
+        }
+        return complete;
+    }
+
+    private void scheduleRetry(OutboxEvent event, String claimToken, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        LocalDateTime nextAttemptAt = null;
+        if (attempts >= maxAttempts) {
+            deadEvents.increment();
+            log.error("Outbox event {} gave up after {} attempts, delivered only to {}",
+                    event.getId(), attempts, event.getDeliveredTo());
+        } else {
+            long backoffMs = retryBackoffMs << Math.min(attempts - 1, 30);
+            nextAttemptAt = now.plusNanos(Math.min(backoffMs, maxRetryBackoffMs) * 1_000_000);
+        }
+        outboxEventRepository.release(event.getId(), claimToken, attempts, event.getDeliveredTo(), nextAttemptAt);
+    }
+
+    private static Set<String> deliveredTo(OutboxEvent event) {
+        Set<String> delivered = new LinkedHashSet<>();
+        if (event.getDeliveredTo() != null) {
+            delivered.addAll(Arrays.asList(event.getDeliveredTo().split(DELIVERED_SEPARATOR)));
+        }
+        return delivered;
+    }
+
+    private static String listenerName(DomainEventListener listener) {
+        return ClassUtils.getUserClass(listener).getSimpleName();
+    }
+}
@@ -1,7 +1,7 @@
 package ru.practicum.exception;
 
-public class AlreadyProcessedException extends RuntimeException {
+public class AlreadyProcessedException extends ShareItException {
     public AlreadyProcessedException(String message) {
-        super(message);
+        super(ErrorCode.ALREADY_PROCESSED, message);
     }
 }
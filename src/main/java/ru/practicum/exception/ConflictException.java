@@ -1,7 +1,7 @@
 package ru.practicum.exception;
 
-public class ConflictException extends RuntimeException {
+public class ConflictException extends ShareItException {
     public ConflictException(String message) {
-        super(message);
+        super(ErrorCode.CONFLICT, message);
     }
 }
@@ -0,0 +1,45 @@
+package ru.practicum.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+@Component
+public class ErrorBodyCache {
+    private final ObjectMapper objectMapper;
+    private final Cache<String, byte[]> bodies;
+
+    public ErrorBodyCache(ObjectMapper objectMapper,
+                          @Value("${shareit.errors.body-cache-size:1000}") long cacheSize) {
+        this.objectMapper = objectMapper;
+        this.bodies = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public ResponseEntity<byte[]> response(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(message));
+    }
+
+    public byte[] body(String message) {
+        return bodies.get(message == null ? "" : message, this::encode);
+    }
+
+    private byte[] encode(String message) {
+        try {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(message));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
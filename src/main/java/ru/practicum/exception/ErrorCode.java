@@ -0,0 +1,25 @@
+package ru.practicum.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public enum ErrorCode {
+    NOT_FOUND(HttpStatus.NOT_FOUND),
+    FORBIDDEN(HttpStatus.FORBIDDEN),
+    CONFLICT(HttpStatus.CONFLICT),
+    VALIDATION(HttpStatus.BAD_REQUEST),
+    UNAVAILABLE_ITEM(HttpStatus.BAD_REQUEST),
+    INVALID_COMMENT(HttpStatus.BAD_REQUEST),
+    UNSUPPORTED_STATUS(HttpStatus.BAD_REQUEST),
+    ALREADY_PROCESSED(HttpStatus.BAD_REQUEST),
+    METHOD_NOT_ALLOWED(HttpStatus.METHOD_NOT_ALLOWED),
+    UNSUPPORTED_MEDIA_TYPE(HttpStatus.UNSUPPORTED_MEDIA_TYPE),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS);
+
+    private final HttpStatus status;
+
+    ErrorCode(HttpStatus status) {
+        this.status = status;
+    }
+}
@@ -1,53 +1,101 @@
 package ru.practicum.exception;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ErrorHandler {
+    private static final String INTERNAL_ERROR_MESSAGE = "An unexpected error occurred.";
 
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handleNotFound(NotFoundException exception) {
-        return new ErrorResponse(exception.getMessage());
-    }
+    private final ErrorBodyCache errorBodies;
+    private final ErrorMetrics errorMetrics;
 
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handleValidation(ValidationException exception) {
-        return new ErrorResponse(exception.getMessage());
+    @ExceptionHandler(ShareItException.class)
+    public ResponseEntity<byte[]> handleDomain(ShareItException exception) {
+        errorMetrics.recordDomainError(exception.getCode());
+        return errorBodies.response(exception.getCode().getStatus(), exception.getMessage());
     }
 
-    @ExceptionHandler(ConflictException.class)
-    @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse handleConflict(ConflictException exception) {
-        return new ErrorResponse(exception.getMessage());
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<byte[]> handleTooManyRequests(TooManyRequestsException exception) {
+        errorMetrics.recordDomainError(exception.getCode());
+        return ResponseEntity.status(exception.getCode().getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorBodies.body(exception.getMessage()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ValidationErrorResponse handleMethodArgumentNotValid(MethodArgumentNotValidException exception) {
+        errorMetrics.recordDomainError(ErrorCode.VALIDATION);
         List<Violation> violations = exception.getBindingResult().getFieldErrors().stream()
                 .map(error -> new Violation(error.getField(), error.getDefaultMessage()))
                 .collect(Collectors.toList());
         return new ValidationErrorResponse(violations);
     }
 
+    @ExceptionHandler(MissingRequestHeaderException.class)
+    public ResponseEntity<byte[]> handleMissingHeader(MissingRequestHeaderException exception) {
+        return clientError(ErrorCode.VALIDATION, "Required header " + exception.getHeaderName() + " is missing");
+    }
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<byte[]> handleMissingParameter(MissingServletRequestParameterException exception) {
+        return clientError(ErrorCode.VALIDATION, "Required parameter " + exception.getParameterName() + " is missing");
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleTypeMismatch(MethodArgumentTypeMismatchException exception) {
+        return clientError(ErrorCode.VALIDATION, "Invalid value of " + exception.getName());
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleNotReadable(HttpMessageNotReadableException exception) {
+        return clientError(ErrorCode.VALIDATION, "Malformed request body");
+    }
+
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<byte[]> handleNoResource(NoResourceFoundException exception) {
+        return clientError(ErrorCode.NOT_FOUND, "Resource not found");
+    }
+
+    @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
+    public ResponseEntity<byte[]> handleMethodNotSupported(HttpRequestMethodNotSupportedException exception) {
+        return clientError(ErrorCode.METHOD_NOT_ALLOWED, "Method " + exception.getMethod() + " is not supported");
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<byte[]> handleMediaTypeNotSupported(HttpMediaTypeNotSupportedException exception) {
+        return clientError(ErrorCode.UNSUPPORTED_MEDIA_TYPE, "Content type is not supported");
+    }
+
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handleInternalError(Throwable exception) {
-        return new ErrorResponse("An unexpected error occurred.");
+    public ResponseEntity<byte[]> handleInternalError(Throwable exception) {
+        errorMetrics.recordUnexpectedError(exception);
+        return errorBodies.response(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_ERROR_MESSAGE);
     }
 
-    @ExceptionHandler(ForbiddenException.class)
-    @ResponseStatus(HttpStatus.FORBIDDEN)
-    public ErrorResponse handleForbidden(ForbiddenException exception) {
-        return new ErrorResponse(exception.getMessage());
+    private ResponseEntity<byte[]> clientError(ErrorCode code, String message) {
+        errorMetrics.recordDomainError(code);
+        return errorBodies.response(code.getStatus(), message);
     }
 }
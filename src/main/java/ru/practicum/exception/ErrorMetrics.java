@@ -0,0 +1,79 @@
+package ru.practicum.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ratelimit.TokenBucket;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class ErrorMetrics {
+    private static final String DOMAIN_ERRORS = "shareit.errors";
+    private static final String UNEXPECTED_ERRORS = "shareit.errors.unexpected";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<ErrorCode, Counter> domainErrors = new EnumMap<>(ErrorCode.class);
+    private final ClassValue<Counter> unexpectedErrors = new ClassValue<>() {
+        @Override
+        protected Counter computeValue(Class<?> type) {
+            return Counter.builder(UNEXPECTED_ERRORS)
+                    .tag("type", type.getName())
+                    .register(meterRegistry);
+        }
+    };
+    private final TokenBucket logBudget;
+    private final AtomicLong suppressedLogs = new AtomicLong();
+
+    public ErrorMetrics(MeterRegistry meterRegistry,
+                        @Value("${shareit.errors.log-burst:10}") int logBurst,
+                        @Value("${shareit.errors.logs-per-second:1}") double logsPerSecond) {
+        this.meterRegistry = meterRegistry;
+        for (ErrorCode code : ErrorCode.values()) {
+            domainErrors.put(code, Counter.builder(DOMAIN_ERRORS)
+                    .tag("code", code.name())
+                    .tag("status", String.valueOf(code.getStatus().value()))
+                    .register(meterRegistry));
+        }
+        this.logBudget = new TokenBucket(logBurst, logsPerSecond, System.nanoTime());
+    }
+
+    public void recordDomainError(ErrorCode code) {
+        domainErrors.get(code).increment();
+    }
+
+    public void recordUnexpectedError(Throwable exception) {
+        unexpectedErrors.get(exception.getClass()).increment();
+        if (logBudget.tryAcquire(System.nanoTime()) > 0) {
+            suppressedLogs.incrementAndGet();
+            return;
+        }
+        long suppressed = suppressedLogs.getAndSet(0);
+        if (suppressed > 0) {
+            log.error("Unexpected error ({} similar log entries suppressed)", suppressed, exception);
+        } else {
+            log.error("Unexpected error", exception);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Long> domain = new TreeMap<>();
+        domainErrors.forEach((code, counter) -> domain.put(code.name(), (long) counter.count()));
+
+        Map<String, Long> unexpected = new TreeMap<>();
+        meterRegistry.find(UNEXPECTED_ERRORS).counters()
+                .forEach(counter -> unexpected.put(counter.getId().getTag("type"), (long) counter.count()));
+
+        Map<String, Object> snapshot = new TreeMap<>();
+        snapshot.put("domain", domain);
+        snapshot.put("unexpected", unexpected);
+        snapshot.put("suppressedLogs", suppressedLogs.get());
+        return snapshot;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.exception;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "errors")
+@RequiredArgsConstructor
+public class ErrorsEndpoint {
+    private final ErrorMetrics errorMetrics;
+
+    @ReadOperation
+    public Map<String, Object> errors() {
+        return errorMetrics.snapshot();
+    }
+}
@@ -1,7 +1,7 @@
 package ru.practicum.exception;
 
-public class ForbiddenException extends RuntimeException {
+public class ForbiddenException extends ShareItException {
     public ForbiddenException(String message) {
-        super(message);
+        super(ErrorCode.FORBIDDEN, message);
     }
 }
@@ -1,7 +1,7 @@
 package ru.practicum.exception;
 
-public class InvalidCommentException extends RuntimeException {
+public class InvalidCommentException extends ShareItException {
     public InvalidCommentException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_COMMENT, message);
     }
 }
@@ -1,7 +1,7 @@
 package ru.practicum.exception;
 
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends ShareItException {
     public NotFoundException(String message) {
-        super(message);
+        super(ErrorCode.NOT_FOUND, message);
     }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.exception;
+
+import lombok.Getter;
+
+/**
+ * Base class for expected, client-caused failures. Their stack traces carry no
+ * diagnostic value, so capturing them can be switched off with
+ * {@code shareit.errors.stack-traces=false} to keep high-rate 4xx paths cheap.
+ */
+@Getter
+public abstract class ShareItException extends RuntimeException {
+    private static volatile boolean stackTraceEnabled = true;
+
+    private final ErrorCode code;
+
+    protected ShareItException(ErrorCode code, String message) {
+        super(message, null, false, stackTraceEnabled);
+        this.code = code;
+    }
+
+    public static void setStackTraceEnabled(boolean enabled) {
+        stackTraceEnabled = enabled;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.exception;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+@Component
+@Lazy(false)
+public class StackTraceSettings {
+
+    public StackTraceSettings(@Value("${shareit.errors.stack-traces:true}") boolean stackTraces) {
+        ShareItException.setStackTraceEnabled(stackTraces);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends ShareItException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(ErrorCode.TOO_MANY_REQUESTS, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
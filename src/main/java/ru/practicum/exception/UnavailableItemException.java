@@ -1,7 +1,7 @@
 package ru.practicum.exception;
 
-public class UnavailableItemException extends RuntimeException {
+public class UnavailableItemException extends ShareItException {
     public UnavailableItemException(String message) {
-        super(message);
+        super(ErrorCode.UNAVAILABLE_ITEM, message);
     }
 }
@@ -1,7 +1,7 @@
 package ru.practicum.exception;
 
-public class UnsupportedStatusException extends RuntimeException {
+public class UnsupportedStatusException extends ShareItException {
     public UnsupportedStatusException(String message) {
-        super(message);
+        super(ErrorCode.UNSUPPORTED_STATUS, message);
     }
 }
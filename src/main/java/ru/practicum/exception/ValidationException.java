@@ -1,7 +1,7 @@
 package ru.practicum.exception;
 
-public class ValidationException extends RuntimeException {
+public class ValidationException extends ShareItException {
     public ValidationException(String message) {
-        super(message);
+        super(ErrorCode.VALIDATION, message);
     }
 }
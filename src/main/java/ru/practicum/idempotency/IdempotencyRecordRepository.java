@@ -0,0 +1,26 @@
+package ru.practicum.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    Optional<IdempotencyRecord> findByIdAndCreatedAfter(String id, LocalDateTime created);
+
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, request_hash, response, created) VALUES (?1, ?2, ?3, ?4)",
+            nativeQuery = true)
+    void insert(String id, String requestHash, String response, LocalDateTime created);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = ?1 AND r.created < ?2")
+    int deleteExpired(String id, LocalDateTime created);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.created < ?1")
+    int deleteCreatedBefore(LocalDateTime created);
+}
@@ -0,0 +1,181 @@
+package ru.practicum.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.exception.ValidationException;
+import ru.practicum.shard.ShardRouter;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Executes a write at most once per {@code Idempotency-Key}. The first request for a key runs the action and
+ * stores its response in the same transaction, so a committed write always has its record; concurrent
+ * duplicates wait on the first request's future and later ones are answered from the cache or the table.
+ * Records older than {@code ttl} are ignored and replaced, even before the cleanup removes them. Failed actions
+ * store nothing and can be retried with the same key.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CompletableFuture<IdempotencyRecord>> records;
+    private final Duration ttl;
+    private final long waitMs;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            TransactionTemplate transactionTemplate,
+                            ShardRouter shardRouter,
+                            ObjectMapper objectMapper,
+                            @Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${shareit.idempotency.cache-size:100000}") long cacheSize,
+                            @Value("${shareit.idempotency.wait-ms:30000}") long waitMs) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitMs = waitMs;
+        this.records = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public <T> T execute(String key, Long userId, String operation, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters long");
+        }
+        String id = userId + ":" + operation + ":" + key;
+        String requestHash = hash(request);
+
+        CompletableFuture<IdempotencyRecord> own = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> existing = records.asMap().putIfAbsent(id, own);
+        if (existing != null) {
+            return replay(await(existing), requestHash, responseType);
+        }
+        try {
+            Optional<IdempotencyRecord> stored = find(id);
+            if (stored.isPresent()) {
+                own.complete(stored.get());
+                return replay(stored.get(), requestHash, responseType);
+            }
+            AtomicReference<IdempotencyRecord> created = new AtomicReference<>();
+            T result;
+            try {
+                result = transactionTemplate.execute(status -> {
+                    T response = action.get();
+                    IdempotencyRecord record = new IdempotencyRecord(id, requestHash, write(response),
+                            LocalDateTime.now());
+                    repository.deleteExpired(id, record.getCreated().minus(ttl));
+                    repository.insert(record.getId(), record.getRequestHash(), record.getResponse(),
+                            record.getCreated());
+                    created.set(record);
+                    return response;
+                });
+            } catch (DataIntegrityViolationException e) {
+                IdempotencyRecord concurrent = find(id).orElseThrow(() -> e);
+                own.complete(concurrent);
+                return replay(concurrent, requestHash, responseType);
+            }
+            own.complete(created.get());
+            return result;
+        } catch (RuntimeException e) {
+            records.asMap().remove(id, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-delay-ms:3600000}")
+    public void cleanup() {
+        LocalDateTime expired = LocalDateTime.now().minus(ttl);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            Integer deleted = transactionTemplate.execute(status -> {
+                shardRouter.useShard(target);
+                return repository.deleteCreatedBefore(expired);
+            });
+            log.debug("Removed {} expired idempotency keys from shard {}", deleted, shard);
+        }
+    }
+
+    private Optional<IdempotencyRecord> find(String id) {
+        LocalDateTime expired = LocalDateTime.now().minus(ttl);
+        return shardRouter.scatter(() -> repository.findByIdAndCreatedAfter(id, expired)).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> first) {
+        try {
+            return first.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this Idempotency-Key is still in progress");
+        }
+    }
+
+    private <T> T replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(record.getResponse(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response of " + record.getId() + " cannot be read", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
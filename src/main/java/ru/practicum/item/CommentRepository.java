@@ -1,13 +1,18 @@
 package ru.practicum.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import ru.practicum.item.Comment;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdOrderById(Long itemId);
 
-    List<Comment> findByItemOwnerId(Long ownerId);
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT c FROM Comment c JOIN c.item i WHERE i.owner.id = ?1 ORDER BY c.id")
+    List<Comment> findByItemOwnerIdOrderById(Long ownerId);
 }
@@ -4,16 +4,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.booking.Booking;
-import ru.practicum.booking.BookingRepository;
+import ru.practicum.booking.BookingArchive;
+import ru.practicum.event.DomainEventPublisher;
+import ru.practicum.event.DomainEventType;
 import ru.practicum.exception.InvalidCommentException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.item.dto.CommentDto;
+import ru.practicum.shard.ShardRouter;
 import ru.practicum.user.User;
 import ru.practicum.user.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Slf4j
 @Service
@@ -22,13 +23,17 @@ import java.util.List;
 public class CommentServiceImpl implements CommentService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
-    private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
+    private final DomainEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final ItemReadCoalescer itemReadCoalescer;
 
     @Override
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         log.info("Adding comment to item {} by user {}", itemId, userId);
+        shardRouter.useShardOf(itemId);
         User author = userRepository.findById(userId)
                 .orElseThrow(() -> {
                     log.error("User with id {} not found", userId);
@@ -50,21 +55,15 @@ public class CommentServiceImpl implements CommentService {
 
         Comment savedComment = commentRepository.save(comment);
         log.debug("Added comment with id {}", savedComment.getId());
+        eventPublisher.publish(DomainEventType.COMMENT_ADDED, savedComment.getId(),
+                itemId, item.getOwner().getId(), userId);
+        itemReadCoalescer.invalidateAfterCommit(itemId);
 
         return commentMapper.toDto(savedComment);
     }
 
     private void validateUserBookedItem(Long itemId, Long userId) {
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = bookingRepository.findByItemIdAndBookerIdAndEndBeforeAndStatus(
-                itemId,
-                userId,
-                now,
-                Booking.BookingStatus.APPROVED // Добавляем проверку статуса
-        );
-
-        if (bookings.isEmpty()) {
+        if (!bookingArchive.hasCompletedBooking(itemId, userId, LocalDateTime.now())) {
             log.error("User {} never booked item {} or booking not completed", userId, itemId);
             throw new InvalidCommentException("User never booked this item or booking not completed");
         }
@@ -1,19 +1,27 @@
 package ru.practicum.item;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.item.dto.CommentDto;
+import ru.practicum.idempotency.IdempotencyStore;
 import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.VerifiedUserId;
 import ru.practicum.util.HttpHeaders;
+import ru.practicum.util.JsonPatchSupport;
+import ru.practicum.util.JsonStreamingSupport;
 import jakarta.validation.Valid;
 
 import java.util.List;
@@ -22,16 +30,24 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final IdempotencyStore idempotencyStore;
+    private final JsonStreamingSupport jsonStreamingSupport;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, IdempotencyStore idempotencyStore,
+                          JsonStreamingSupport jsonStreamingSupport) {
         this.itemService = itemService;
+        this.idempotencyStore = idempotencyStore;
+        this.jsonStreamingSupport = jsonStreamingSupport;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ItemDto create(@RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId,
+    public ItemDto create(@VerifiedUserId Long ownerId,
+                          @RequestHeader(value = HttpHeaders.IDEMPOTENCY_KEY_HEADER, required = false)
+                          String idempotencyKey,
                           @Valid @RequestBody ItemDto itemDto) {
-        return itemService.create(itemDto, ownerId);
+        return idempotencyStore.execute(idempotencyKey, ownerId, "item.create", itemDto,
+                ItemDto.class, () -> itemService.create(itemDto, ownerId));
     }
 
     @PatchMapping("/{itemId}")
@@ -42,6 +58,22 @@ public class ItemController {
         return itemService.update(itemDto, ownerId);
     }
 
+    @PatchMapping(path = "/{itemId}", consumes = JsonPatchSupport.MEDIA_TYPE)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void patch(@RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId,
+                      @PathVariable Long itemId,
+                      @RequestBody JsonNode patch) {
+        itemService.patch(itemId, ownerId, patch);
+    }
+
+    @PutMapping("/{itemId}/availability")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void setAvailable(@RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId,
+                             @PathVariable Long itemId,
+                             @RequestParam Boolean available) {
+        itemService.setAvailable(itemId, ownerId, available);
+    }
+
     @GetMapping("/{itemId}")
     public ItemDto getById(@PathVariable Long itemId,
                            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId) {
@@ -54,8 +86,8 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return text.isBlank() ? List.of() : itemService.search(text);
+    public ResponseEntity<StreamingResponseBody> search(@RequestParam String text) {
+        return jsonStreamingSupport.<ItemDto>array(sink -> itemService.search(text, sink));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,104 @@
+package ru.practicum.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.event.DomainEvent;
+import ru.practicum.event.DomainEventListener;
+import ru.practicum.event.DomainEventType;
+import ru.practicum.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+
+/**
+ * Single-flight cache for item reads. Concurrent reads of the same item and view share one load, and the result
+ * is kept for a short TTL. Item writes invalidate it after commit and booking events through the outbox. The
+ * public view is resolved first because it tells whether the viewer owns the item and needs the owner view
+ * with booking data. Callers wait outside any transaction, so only the loading thread holds a connection.
+ */
+@Component
+public class ItemReadCoalescer implements DomainEventListener {
+    private final Cache<ViewKey, CompletableFuture<ItemView>> views;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ItemReadCoalescer(PlatformTransactionManager transactionManager,
+                             @Value("${shareit.item-cache.ttl:500ms}") Duration ttl,
+                             @Value("${shareit.item-cache.max-size:10000}") long maxSize) {
+        this.views = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public ItemDto get(Long itemId, Long viewerId, BiFunction<Long, Boolean, ItemView> loader) {
+        ItemView view = load(new ViewKey(itemId, false), loader);
+        if (!view.getOwnerId().equals(viewerId)) {
+            return view.getItem();
+        }
+        return load(new ViewKey(itemId, true), loader).getItem();
+    }
+
+    public void invalidate(Long itemId) {
+        views.invalidate(new ViewKey(itemId, false));
+        views.invalidate(new ViewKey(itemId, true));
+    }
+
+    public void invalidateAfterCommit(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(itemId);
+            }
+        });
+    }
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return true;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (event.getItemId() != null) {
+            invalidate(event.getItemId());
+        }
+    }
+
+    private ItemView load(ViewKey key, BiFunction<Long, Boolean, ItemView> loader) {
+        CompletableFuture<ItemView> own = new CompletableFuture<>();
+        CompletableFuture<ItemView> existing = views.asMap().putIfAbsent(key, own);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            ItemView view = readOnlyTransaction.execute(status -> loader.apply(key.itemId, key.ownerView));
+            own.complete(view);
+            return view;
+        } catch (RuntimeException e) {
+            views.asMap().remove(key, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private record ViewKey(Long itemId, boolean ownerView) {
+    }
+}
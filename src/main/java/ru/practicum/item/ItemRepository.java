@@ -1,18 +1,21 @@
 package ru.practicum.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-
-    List<Item> findByOwnerIdOrderById(Long ownerId);
-
-    @Query("SELECT i FROM Item i " +
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    String SEARCH_QUERY = "SELECT i FROM Item i " +
             "WHERE i.available = true AND " +
             "(LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%')))")
-    List<Item> search(String text);
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%')))";
+
+    List<Item> findByOwnerIdOrderById(Long ownerId);
 
     List<Item> findByRequestId(Long requestId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.available = ?3 WHERE i.id = ?1 AND i.owner.id = ?2")
+    int updateAvailability(Long itemId, Long ownerId, boolean available);
 }
@@ -0,0 +1,15 @@
+package ru.practicum.item;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface ItemRepositoryCustom {
+
+    int updateOwnedItem(Long itemId, Long ownerId, Map<String, Object> values);
+
+    /**
+     * Reads the search results through a cursor and hands each item to {@code action} before the next row is
+     * fetched; the item is detached afterwards, so memory does not grow with the result.
+     */
+    void forEachSearchResult(String text, Consumer<Item> action);
+}
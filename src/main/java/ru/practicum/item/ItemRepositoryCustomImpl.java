@@ -0,0 +1,42 @@
+package ru.practicum.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private static final int SEARCH_FETCH_SIZE = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateOwnedItem(Long itemId, Long ownerId, Map<String, Object> values) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Item> update = cb.createCriteriaUpdate(Item.class);
+        Root<Item> item = update.from(Item.class);
+        values.forEach((field, value) -> update.set(item.get(field), value));
+        update.where(cb.equal(item.get("id"), itemId), cb.equal(item.get("owner").get("id"), ownerId));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public void forEachSearchResult(String text, Consumer<Item> action) {
+        try (Stream<Item> items = entityManager.createQuery(ItemRepository.SEARCH_QUERY, Item.class)
+                .setParameter(1, text)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, SEARCH_FETCH_SIZE)
+                .getResultStream()) {
+            items.forEach(item -> {
+                action.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package ru.practicum.item;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import ru.practicum.item.dto.CommentDto;
 import ru.practicum.item.dto.ItemDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -11,11 +13,15 @@ public interface ItemService {
 
     ItemDto update(ItemDto itemDto, Long ownerId);
 
+    void patch(Long itemId, Long ownerId, JsonNode patch);
+
+    void setAvailable(Long itemId, Long ownerId, boolean available);
+
     ItemDto getById(Long id, Long ownerId);
 
     List<ItemDto> getAllByOwner(Long ownerId);
 
-    List<ItemDto> search(String text);
+    void search(String text, Consumer<ItemDto> consumer);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 }
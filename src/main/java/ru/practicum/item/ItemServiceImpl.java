@@ -1,21 +1,32 @@
 package ru.practicum.item;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingArchive;
+import ru.practicum.booking.ItemBookingIndex;
 import ru.practicum.booking.BookingRepository;
+import ru.practicum.event.DomainEventPublisher;
+import ru.practicum.event.DomainEventType;
+import ru.practicum.exception.ForbiddenException;
 import ru.practicum.exception.InvalidCommentException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.item.dto.CommentDto;
 import ru.practicum.item.dto.ItemDto;
+import ru.practicum.shard.ShardRouter;
 import ru.practicum.user.User;
 import ru.practicum.user.UserRepository;
+import ru.practicum.util.JsonPatchSupport;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,25 +34,35 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "description", "available");
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
+    private final DomainEventPublisher eventPublisher;
+    private final JsonPatchSupport jsonPatchSupport;
+    private final ShardRouter shardRouter;
+    private final ItemReadCoalescer itemReadCoalescer;
 
     @Override
     @Transactional
     public ItemDto create(ItemDto itemDto, Long ownerId) {
         log.info("Creating item for owner {}", ownerId);
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> {
-                    log.error("User with id {} not found", ownerId);
-                    return new NotFoundException("User not found");
-                });
+        shardRouter.useOwnerShard(ownerId);
+        User owner = userRepository.getReferenceById(ownerId);
 
         Item item = itemMapper.toItem(itemDto, owner);
-        Item savedItem = itemRepository.save(item);
+        Item savedItem;
+        try {
+            savedItem = itemRepository.save(item);
+        } catch (DataIntegrityViolationException e) {
+            log.error("Owner {} of new item not found", ownerId);
+            throw new NotFoundException("User not found");
+        }
         log.debug("Created item with id {}", savedItem.getId());
 
         return itemMapper.toItemDto(savedItem);
@@ -51,6 +72,7 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public ItemDto update(ItemDto itemDto, Long ownerId) {
         log.info("Updating item {} for owner {}", itemDto.getId(), ownerId);
+        shardRouter.useShardOf(itemDto.getId());
         Item existingItem = itemRepository.findById(itemDto.getId())
                 .orElseThrow(() -> {
                     log.error("Item with id {} not found", itemDto.getId());
@@ -65,48 +87,102 @@ public class ItemServiceImpl implements ItemService {
         itemMapper.updateItemFromDto(itemDto, existingItem);
         Item updatedItem = itemRepository.save(existingItem);
         log.debug("Updated item with id {}", updatedItem.getId());
+        eventPublisher.publish(DomainEventType.ITEM_UPDATED, updatedItem.getId(),
+                updatedItem.getId(), ownerId, ownerId);
+        itemReadCoalescer.invalidateAfterCommit(updatedItem.getId());
 
         return itemMapper.toItemDto(updatedItem);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
+    public void patch(Long itemId, Long ownerId, JsonNode patch) {
+        log.info("Patching item {} for owner {}", itemId, ownerId);
+        shardRouter.useShardOf(itemId);
+        Map<String, Object> values = jsonPatchSupport.scalarReplacements(patch, PATCHABLE_FIELDS, ItemDto.class);
+        if (values != null) {
+            if (itemRepository.updateOwnedItem(itemId, ownerId, values) == 0) {
+                throw itemRepository.existsById(itemId)
+                        ? new NotFoundException("Only owner can update item")
+                        : new NotFoundException("Item not found");
+            }
+        } else {
+            Item existingItem = itemRepository.findById(itemId)
+                    .orElseThrow(() -> new NotFoundException("Item not found"));
+            if (!existingItem.getOwner().getId().equals(ownerId)) {
+                throw new NotFoundException("Only owner can update item");
+            }
+            ItemDto patched = jsonPatchSupport.apply(patch, itemMapper.toItemDto(existingItem),
+                    PATCHABLE_FIELDS, ItemDto.class);
+            patched.setId(itemId);
+            itemMapper.updateItemFromDto(patched, existingItem);
+        }
+        log.debug("Patched item with id {}", itemId);
+        eventPublisher.publish(DomainEventType.ITEM_UPDATED, itemId, itemId, ownerId, ownerId);
+        itemReadCoalescer.invalidateAfterCommit(itemId);
+    }
+
+    @Override
+    @Transactional
+    public void setAvailable(Long itemId, Long ownerId, boolean available) {
+        log.info("Setting availability of item {} to {} for owner {}", itemId, available, ownerId);
+        shardRouter.useShardOf(itemId);
+        if (itemRepository.updateAvailability(itemId, ownerId, available) == 0) {
+            if (itemRepository.existsById(itemId)) {
+                log.error("User {} is not owner of item {}", ownerId, itemId);
+                throw new ForbiddenException("Only owner can change item availability");
+            }
+            log.error("Item with id {} not found", itemId);
+            throw new NotFoundException("Item not found");
+        }
+        eventPublisher.publish(DomainEventType.ITEM_UPDATED, itemId, itemId, ownerId, ownerId);
+        itemReadCoalescer.invalidateAfterCommit(itemId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ItemDto getById(Long id, Long ownerId) {
         log.info("Getting item {} for user {}", id, ownerId);
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("Item with id {} not found", id);
-                    return new NotFoundException("Item not found");
-                });
-
-        return enrichAndConvertToDto(item, ownerId);
+        return itemReadCoalescer.get(id, ownerId, this::loadView);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getAllByOwner(Long ownerId) {
         log.info("Getting all items for owner {}", ownerId);
-        return itemRepository.findByOwnerIdOrderById(ownerId).stream()
-                .map(item -> enrichAndConvertToDto(item, ownerId))
+        shardRouter.useOwnerShard(ownerId);
+        List<Item> items = itemRepository.findByOwnerIdOrderById(ownerId);
+        ItemBookingIndex bookings = bookingArchive.indexOwnerItems(ownerId,
+                items.stream().map(Item::getId).collect(Collectors.toList()), LocalDateTime.now());
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemOwnerIdOrderById(ownerId).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+        return items.stream()
+                .map(item -> {
+                    ItemDto itemDto = itemMapper.toItemDto(item);
+                    addBookingInfo(itemDto, bookings);
+                    itemDto.setComments(comments.getOrDefault(item.getId(), List.of()));
+                    return itemDto;
+                })
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<ItemDto> search(String text) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void search(String text, Consumer<ItemDto> consumer) {
         log.info("Searching items by text: {}", text);
         if (text == null || text.isBlank()) {
-            return Collections.emptyList();
+            return;
         }
-        return itemRepository.search(text).stream()
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList());
+        shardRouter.readEachShard(() -> itemRepository.forEachSearchResult(text,
+                item -> consumer.accept(itemMapper.toItemDto(item))));
     }
 
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         log.info("Adding comment to item {} by user {}", itemId, userId);
+        shardRouter.useShardOf(itemId);
         User author = userRepository.findById(userId)
                 .orElseThrow(() -> {
                     log.error("User with id {} not found", userId);
@@ -128,27 +204,31 @@ public class ItemServiceImpl implements ItemService {
 
         Comment savedComment = commentRepository.save(comment);
         log.debug("Added comment with id {}", savedComment.getId());
+        eventPublisher.publish(DomainEventType.COMMENT_ADDED, savedComment.getId(),
+                itemId, item.getOwner().getId(), userId);
+        itemReadCoalescer.invalidateAfterCommit(itemId);
 
         return commentMapper.toDto(savedComment);
     }
 
-    private ItemDto enrichAndConvertToDto(Item item, Long ownerId) {
-        ItemDto itemDto = itemMapper.toItemDto(item);
-        enrichItemDtoWithAdditionalData(itemDto, item, ownerId);
-        return itemDto;
-    }
+    private ItemView loadView(Long itemId, boolean ownerView) {
+        shardRouter.useShardOf(itemId);
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> {
+                    log.error("Item with id {} not found", itemId);
+                    return new NotFoundException("Item not found");
+                });
 
-    private void enrichItemDtoWithAdditionalData(ItemDto itemDto, Item item, Long ownerId) {
-        if (item.getOwner().getId().equals(ownerId)) {
-            LocalDateTime now = LocalDateTime.now();
-            addBookingInfo(itemDto, item.getId(), now);
+        ItemDto itemDto = itemMapper.toItemDto(item);
+        if (ownerView) {
+            addBookingInfo(itemDto, itemId, LocalDateTime.now());
         }
-        addCommentsInfo(itemDto, item.getId());
+        addCommentsInfo(itemDto, itemId);
+        return new ItemView(itemDto, item.getOwner().getId());
     }
 
     private void addBookingInfo(ItemDto itemDto, Long itemId, LocalDateTime now) {
-        bookingRepository.findLastBooking(itemId, now).stream()
-                .findFirst()
+        bookingArchive.findLastBooking(itemId, now)
                 .ifPresent(booking -> itemDto.setLastBooking(
                         new ItemDto.BookingShort(booking.getId(), booking.getBooker().getId())));
 
@@ -158,18 +238,27 @@ public class ItemServiceImpl implements ItemService {
                         new ItemDto.BookingShort(booking.getId(), booking.getBooker().getId())));
     }
 
+    private void addBookingInfo(ItemDto itemDto, ItemBookingIndex bookings) {
+        long itemId = itemDto.getId();
+        if (bookings.hasLast(itemId)) {
+            itemDto.setLastBooking(new ItemDto.BookingShort(bookings.lastBookingId(itemId),
+                    bookings.lastBookerId(itemId)));
+        }
+        if (bookings.hasNext(itemId)) {
+            itemDto.setNextBooking(new ItemDto.BookingShort(bookings.nextBookingId(itemId),
+                    bookings.nextBookerId(itemId)));
+        }
+    }
+
     private void addCommentsInfo(ItemDto itemDto, Long itemId) {
-        List<CommentDto> comments = commentRepository.findByItemId(itemId).stream()
+        List<CommentDto> comments = commentRepository.findByItemIdOrderById(itemId).stream()
                 .map(commentMapper::toDto)
                 .collect(Collectors.toList());
         itemDto.setComments(comments);
     }
 
     private void validateUserBookedItem(Long itemId, Long userId) {
-        List<Booking> bookings = bookingRepository.findCompletedBookings(
-                itemId, userId, LocalDateTime.now());
-
-        if (bookings.isEmpty()) {
+        if (!bookingArchive.hasCompletedBooking(itemId, userId, LocalDateTime.now())) {
             log.error("User {} never booked item {}", userId, itemId);
             throw new InvalidCommentException("User never booked this item");
         }
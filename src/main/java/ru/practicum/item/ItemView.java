@@ -0,0 +1,12 @@
+package ru.practicum.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.item.dto.ItemDto;
+
+@Getter
+@AllArgsConstructor
+public class ItemView {
+    private final ItemDto item;
+    private final Long ownerId;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.owner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.owner.dto.OwnerSummaryDto;
+import ru.practicum.user.VerifiedUserId;
+
+@RestController
+@RequestMapping(path = "/owners")
+@RequiredArgsConstructor
+public class OwnerController {
+    private final OwnerSummaryService ownerSummaryService;
+
+    @GetMapping("/me/summary")
+    public OwnerSummaryDto getSummary(@VerifiedUserId Long ownerId) {
+        return ownerSummaryService.getSummary(ownerId);
+    }
+}
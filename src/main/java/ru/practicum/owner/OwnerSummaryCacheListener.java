@@ -0,0 +1,25 @@
+package ru.practicum.owner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.event.DomainEvent;
+import ru.practicum.event.DomainEventListener;
+import ru.practicum.event.DomainEventType;
+
+@Component
+@RequiredArgsConstructor
+public class OwnerSummaryCacheListener implements DomainEventListener {
+    private final OwnerSummaryService ownerSummaryService;
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return type != DomainEventType.COMMENT_ADDED;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (event.getOwnerId() != null) {
+            ownerSummaryService.evict(event.getOwnerId());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.owner;
+
+import ru.practicum.owner.dto.OwnerSummaryDto;
+
+public interface OwnerSummaryService {
+
+    OwnerSummaryDto getSummary(Long ownerId);
+
+    void evict(Long ownerId);
+}
@@ -0,0 +1,129 @@
+package ru.practicum.owner;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingArchiveRepository;
+import ru.practicum.booking.BookingMapper;
+import ru.practicum.booking.BookingRepository;
+import ru.practicum.booking.ItemBookingStats;
+import ru.practicum.owner.dto.ItemUtilizationDto;
+import ru.practicum.owner.dto.OwnerSummaryDto;
+import ru.practicum.shard.ShardRouter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class OwnerSummaryServiceImpl implements OwnerSummaryService {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository archiveRepository;
+    private final BookingMapper bookingMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Long, OwnerSummaryDto> summaryCache;
+    private final int upcomingLimit;
+    private final Duration utilizationWindow;
+
+    public OwnerSummaryServiceImpl(BookingRepository bookingRepository,
+                                   BookingArchiveRepository archiveRepository,
+                                   BookingMapper bookingMapper,
+                                   ShardRouter shardRouter,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${shareit.owner-summary.cache-ttl-ms:5000}") long cacheTtlMs,
+                                   @Value("${shareit.owner-summary.cache-size:10000}") long cacheSize,
+                                   @Value("${shareit.owner-summary.upcoming-limit:5}") int upcomingLimit,
+                                   @Value("${shareit.owner-summary.utilization-window-days:30}") long windowDays) {
+        this.bookingRepository = bookingRepository;
+        this.archiveRepository = archiveRepository;
+        this.bookingMapper = bookingMapper;
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.summaryCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(cacheSize)
+                .build();
+        this.upcomingLimit = upcomingLimit;
+        this.utilizationWindow = Duration.ofDays(windowDays);
+    }
+
+    @Override
+    public OwnerSummaryDto getSummary(Long ownerId) {
+        log.info("Getting booking summary for owner {}", ownerId);
+        return summaryCache.get(ownerId, id -> readOnlyTransaction.execute(status -> computeSummary(id)));
+    }
+
+    @Override
+    public void evict(Long ownerId) {
+        summaryCache.invalidate(ownerId);
+    }
+
+    private OwnerSummaryDto computeSummary(Long ownerId) {
+        shardRouter.useOwnerShard(ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = now.minus(utilizationWindow);
+        double windowSeconds = utilizationWindow.toSeconds();
+
+        OwnerSummaryDto summary = new OwnerSummaryDto();
+        summary.setOwnerId(ownerId);
+
+        long total = 0;
+        long current = 0;
+        long past = 0;
+        long future = 0;
+        long waiting = 0;
+        long rejected = 0;
+        Map<Long, ItemBookingStats> archived = archiveRepository.aggregateByOwner(ownerId).stream()
+                .collect(Collectors.toMap(ItemBookingStats::getItemId, Function.identity()));
+        for (ItemBookingStats stats : bookingRepository.aggregateByOwner(ownerId, now, windowStart)) {
+            ItemBookingStats archivedStats = archived.get(stats.getItemId());
+            long itemTotal = stats.getTotal() + (archivedStats == null ? 0 : archivedStats.getTotal());
+            total += itemTotal;
+            current += valueOf(stats.getCurrent());
+            past += valueOf(stats.getPast());
+            future += valueOf(stats.getFuture());
+            waiting += valueOf(stats.getWaiting());
+            rejected += valueOf(stats.getRejected());
+            if (archivedStats != null) {
+                past += valueOf(archivedStats.getPast());
+                rejected += valueOf(archivedStats.getRejected());
+            }
+            summary.getItems().add(new ItemUtilizationDto(
+                    stats.getItemId(),
+                    stats.getItemName(),
+                    itemTotal,
+                    valueOf(stats.getWaiting()),
+                    valueOf(stats.getBookedSeconds()) / windowSeconds));
+        }
+        summary.getBookingCounts().put("ALL", total);
+        summary.getBookingCounts().put("CURRENT", current);
+        summary.getBookingCounts().put("PAST", past);
+        summary.getBookingCounts().put("FUTURE", future);
+        summary.getBookingCounts().put("WAITING", waiting);
+        summary.getBookingCounts().put("REJECTED", rejected);
+
+        summary.setUpcomingBookings(bookingRepository.findByItemOwnerIdAndStartAfterAndStatusInOrderByStartAsc(
+                        ownerId, now,
+                        EnumSet.of(Booking.BookingStatus.WAITING, Booking.BookingStatus.APPROVED),
+                        PageRequest.of(0, upcomingLimit)).stream()
+                .map(bookingMapper::toResponseDto)
+                .collect(Collectors.toList()));
+        return summary;
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+}
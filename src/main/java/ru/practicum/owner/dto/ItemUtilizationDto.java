@@ -0,0 +1,16 @@
+package ru.practicum.owner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemUtilizationDto {
+    private Long itemId;
+    private String name;
+    private Long bookings;
+    private Long waitingBookings;
+    private Double utilization;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.owner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.booking.dto.BookingResponseDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerSummaryDto {
+    private Long ownerId;
+    private Map<String, Long> bookingCounts = new LinkedHashMap<>();
+    private List<BookingResponseDto> upcomingBookings = new ArrayList<>();
+    private List<ItemUtilizationDto> items = new ArrayList<>();
+}
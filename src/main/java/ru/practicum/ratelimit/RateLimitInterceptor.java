@@ -0,0 +1,51 @@
+package ru.practicum.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
+import ru.practicum.exception.TooManyRequestsException;
+import ru.practicum.util.HttpHeaders;
+
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        RequestPath path = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : ServletRequestPathUtils.parseAndCache(request);
+        long waitNanos = rateLimiter.tryAcquire(path.pathWithinApplication(), clientKey(request));
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            log.debug("Rate limit exceeded for {} on {}", clientKey(request), request.getRequestURI());
+            throw new TooManyRequestsException("Too many requests", retryAfter);
+        }
+        return true;
+    }
+
+    private static Object clientKey(HttpServletRequest request) {
+        String userId = request.getHeader(HttpHeaders.USER_ID_HEADER);
+        if (userId != null) {
+            try {
+                return Long.valueOf(userId);
+            } catch (NumberFormatException ignored) {
+                // fall back to the client address
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private long maxKeys = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Group {
+        private List<String> patterns = new ArrayList<>();
+        private int capacity = 100;
+        private double refillPerSecond = 50;
+    }
+}
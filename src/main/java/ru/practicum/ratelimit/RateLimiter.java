@@ -0,0 +1,78 @@
+package ru.practicum.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token buckets per client and group. Each group keeps one bucket cache, so every pattern of a group draws
+ * from the same bucket; a request is charged to the group of the most specific matching pattern.
+ */
+@Component
+public class RateLimiter {
+    private final List<Route> routes = new ArrayList<>();
+
+    public RateLimiter(RateLimitProperties properties) {
+        for (Map.Entry<String, RateLimitProperties.Group> entry : properties.getGroups().entrySet()) {
+            GroupLimiter limiter = new GroupLimiter(entry.getKey(), entry.getValue(), properties);
+            for (String pattern : entry.getValue().getPatterns()) {
+                routes.add(new Route(PathPatternParser.defaultInstance.parse(pattern), limiter));
+            }
+        }
+        routes.sort(Comparator.comparing(Route::pattern, PathPattern.SPECIFICITY_COMPARATOR));
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise nanoseconds until the client may retry
+     */
+    public long tryAcquire(PathContainer path, Object clientKey) {
+        for (Route route : routes) {
+            if (route.pattern().matches(path)) {
+                return route.limiter().tryAcquire(clientKey);
+            }
+        }
+        return 0;
+    }
+
+    private record Route(PathPattern pattern, GroupLimiter limiter) {
+    }
+
+    private static final class GroupLimiter {
+        private final String name;
+        private final int capacity;
+        private final double refillPerSecond;
+        private final Cache<Object, TokenBucket> buckets;
+
+        private GroupLimiter(String name, RateLimitProperties.Group group, RateLimitProperties properties) {
+            this.name = name;
+            this.capacity = group.getCapacity();
+            this.refillPerSecond = group.getRefillPerSecond();
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaxKeys())
+                    .expireAfterAccess(properties.getIdleTimeout())
+                    .build();
+        }
+
+        private long tryAcquire(Object clientKey) {
+            long now = System.nanoTime();
+            TokenBucket bucket = buckets.getIfPresent(clientKey);
+            if (bucket == null) {
+                bucket = buckets.get(clientKey, key -> new TokenBucket(capacity, refillPerSecond, now));
+            }
+            return bucket.tryAcquire(now);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shard;
+
+public final class ShardContext {
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+    }
+
+    public static Integer get() {
+        return SHARD.get();
+    }
+
+    public static void clear() {
+        SHARD.remove();
+    }
+}
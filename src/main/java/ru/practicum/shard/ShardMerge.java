@@ -0,0 +1,57 @@
+package ru.practicum.shard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class ShardMerge {
+
+    private ShardMerge() {
+    }
+
+    /**
+     * Merges per-shard lists that are each sorted by {@code order}, skips {@code offset} elements of the
+     * merged sequence and returns at most {@code limit} of the rest.
+     */
+    public static <T> List<T> mergeSorted(List<List<T>> sortedLists, Comparator<? super T> order,
+                                          long offset, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.current(), b.current()));
+        for (List<T> list : sortedLists) {
+            if (!list.isEmpty()) {
+                heads.add(new Cursor<>(list));
+            }
+        }
+        List<T> result = new ArrayList<>(Math.max(0, limit));
+        long skipped = 0;
+        while (!heads.isEmpty() && result.size() < limit) {
+            Cursor<T> head = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(head.current());
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return result;
+    }
+
+    private static final class Cursor<T> {
+        private final List<T> list;
+        private int position;
+
+        private Cursor(List<T> list) {
+            this.list = list;
+        }
+
+        private T current() {
+            return list.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < list.size();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Binds transactions to the shard of an owner or entity id. Services call {@code useOwnerShard} or
+ * {@code useShardOf} before their first query; the connection is fetched lazily, so the bound shard decides
+ * where the transaction runs. Without sharding every method is a no-op and {@link #scatter} runs the query
+ * once in the caller's transaction.
+ */
+@Slf4j
+@Component
+public class ShardRouter implements DisposableBean {
+    private final ShardingDataSource shardingDataSource;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public ShardRouter(ObjectProvider<ShardingDataSource> shardingDataSource,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${shareit.sharding.scatter-threads:8}") int scatterThreads) {
+        this.shardingDataSource = shardingDataSource.getIfAvailable();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = isSharded() ? Executors.newFixedThreadPool(scatterThreads) : null;
+    }
+
+    public boolean isSharded() {
+        return shardingDataSource != null && shardingDataSource.shardCount() > 1;
+    }
+
+    public int shardCount() {
+        return shardingDataSource == null ? 1 : shardingDataSource.shardCount();
+    }
+
+    public int shardOfOwner(Long ownerId) {
+        return ownerId == null ? ShardingDataSource.HOME_SHARD : Math.floorMod(ownerId, shardCount());
+    }
+
+    public int shardOfId(Long id) {
+        if (shardingDataSource == null || id == null || id < 1) {
+            return ShardingDataSource.HOME_SHARD;
+        }
+        long shard = (id - 1) / shardingDataSource.idSpan();
+        return shard < shardCount() ? (int) shard : ShardingDataSource.HOME_SHARD;
+    }
+
+    public void useOwnerShard(Long ownerId) {
+        useShard(shardOfOwner(ownerId));
+    }
+
+    public void useShardOf(Long id) {
+        useShard(shardOfId(id));
+    }
+
+    public void useShard(int shard) {
+        if (!isSharded()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Shard can only be bound inside a transaction");
+        }
+        Integer previous = ShardContext.get();
+        if (previous != null && !previous.equals(shard)) {
+            throw new IllegalStateException("Transaction is already bound to shard " + previous);
+        }
+        ShardContext.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ShardContext.set(previous);
+            }
+        });
+    }
+
+    public <T> List<T> scatter(Supplier<T> query) {
+        if (!isSharded()) {
+            return List.of(query.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount());
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> readOnShard(target, query), executor));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs {@code read} once per shard, one shard after another, each time in a new read-only transaction
+     * bound to that shard. For readers that write all shards to one output in turn; the caller must not hold
+     * a transaction.
+     */
+    public void readEachShard(Runnable read) {
+        Supplier<Boolean> query = () -> {
+            read.run();
+            return Boolean.TRUE;
+        };
+        if (!isSharded()) {
+            readOnlyTransaction.execute(status -> query.get());
+            return;
+        }
+        for (int shard = 0; shard < shardCount(); shard++) {
+            readOnShard(shard, query);
+        }
+    }
+
+    private <T> T readOnShard(int shard, Supplier<T> query) {
+        ShardContext.set(shard);
+        try {
+            return Objects.requireNonNull(readOnlyTransaction.execute(status -> query.get()));
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shard;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.practicum.datasource.HikariPools;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    private static final Location SHARD_MIGRATIONS = new Location("classpath:db/shard");
+
+    @Bean
+    public ShardingDataSource shardingDataSource(DataSourceProperties dataSourceProperties,
+                                                 ShardingProperties sharding,
+                                                 HikariPools hikariPools,
+                                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView,
+                                                 @Value("${shareit.datasource.routing.enabled:false}") boolean routing) {
+        if (routing) {
+            throw new IllegalStateException("shareit.sharding and shareit.datasource.routing cannot be enabled together");
+        }
+        if (openInView) {
+            throw new IllegalStateException("Sharding requires spring.jpa.open-in-view=false: a request-scoped "
+                    + "session would keep the connection of the first query instead of the bound shard");
+        }
+        if (sharding.getShards().isEmpty()) {
+            throw new IllegalStateException("shareit.sharding.shards must list at least one shard");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : sharding.getShards()) {
+            shards.add(hikariPools.create("shareit-shard-" + shards.size(),
+                    dataSourceProperties.determineDriverClassName(),
+                    shard.getUrl(),
+                    shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.determineUsername(),
+                    shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.determinePassword(),
+                    null, false));
+        }
+        return new ShardingDataSource(shards, sharding.getIdSpan());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingDataSource shardingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardingDataSource);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(ShardingDataSource shardingDataSource) {
+        return flyway -> {
+            List<Location> locations = new ArrayList<>(Arrays.asList(flyway.getConfiguration().getLocations()));
+            locations.add(SHARD_MIGRATIONS);
+            for (int shard = 0; shard < shardingDataSource.shardCount(); shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shardingDataSource.shard(shard))
+                        .locations(locations.toArray(new Location[0]))
+                        .placeholders(Map.of("id_offset", String.valueOf(shardingDataSource.idOffset(shard))))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+}
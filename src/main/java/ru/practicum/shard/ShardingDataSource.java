@@ -0,0 +1,63 @@
+package ru.practicum.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes connections to the shard bound in {@link ShardContext}; unbound work goes to shard 0, which also
+ * holds the authoritative copy of the users table. Shard {@code n} allocates item, booking and comment ids
+ * from {@code n * idSpan + 1}, so the shard of a row can be derived from its id.
+ */
+public class ShardingDataSource extends AbstractRoutingDataSource implements Closeable {
+    public static final int HOME_SHARD = 0;
+
+    private final List<DataSource> shards;
+    private final long idSpan;
+
+    public ShardingDataSource(List<DataSource> shards, long idSpan) {
+        this.shards = List.copyOf(shards);
+        this.idSpan = idSpan;
+        Map<Object, Object> lookup = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            lookup.put(i, shards.get(i));
+        }
+        setTargetDataSources(lookup);
+        setDefaultTargetDataSource(shards.get(HOME_SHARD));
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    public long idSpan() {
+        return idSpan;
+    }
+
+    public long idOffset(int shard) {
+        return shard * idSpan + 1;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
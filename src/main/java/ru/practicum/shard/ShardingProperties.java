@@ -0,0 +1,23 @@
+package ru.practicum.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    private long idSpan = 1_000_000_000_000L;
+    private int scatterThreads = 8;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.exception.ConflictException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies user rows from the home shard to every other shard so item owners and bookers can be joined
+ * locally. Shard 0 stays authoritative; the copies are refreshed after each committed user change. A copy
+ * that fails is counted as {@code shareit.sharding.user.replication.failures} and retried every
+ * {@code replication-retry-delay-ms}, up to {@code replication-max-attempts} attempts in all;
+ * {@code shareit.sharding.user.replication.pending} shows how many users are still stale on some shard and
+ * {@code shareit.sharding.user.replication.abandoned} counts the copies given up on.
+ * Users that still own items or have bookings or comments on any shard cannot be deleted, since the copies
+ * on the other shards could not follow.
+ */
+@Slf4j
+@Component
+public class UserReplicator {
+    private static final String[] USER_REFERENCES = {
+            "SELECT COUNT(*) FROM items WHERE owner_id = ?",
+            "SELECT COUNT(*) FROM bookings WHERE booker_id = ?",
+            "SELECT COUNT(*) FROM bookings_archive WHERE booker_id = ?",
+            "SELECT COUNT(*) FROM comments WHERE author_id = ?"
+    };
+
+    private final ShardingDataSource shardingDataSource;
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+    private final Counter failures;
+    private final Counter abandoned;
+    private final int maxAttempts;
+
+    public UserReplicator(ObjectProvider<ShardingDataSource> shardingDataSource, MeterRegistry meterRegistry,
+                          @Value("${shareit.sharding.replication-max-attempts:10}") int maxAttempts) {
+        this.shardingDataSource = shardingDataSource.getIfAvailable();
+        this.failures = Counter.builder("shareit.sharding.user.replication.failures")
+                .description("User copies to non-home shards that failed and were queued for retry")
+                .register(meterRegistry);
+        this.abandoned = Counter.builder("shareit.sharding.user.replication.abandoned")
+                .description("User copies given up on after the maximum number of attempts")
+                .register(meterRegistry);
+        Gauge.builder("shareit.sharding.user.replication.pending", pending, Map::size)
+                .register(meterRegistry);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Refuses to delete a user that is still referenced on some shard.
+     */
+    public void checkDeletable(Long userId) {
+        if (shardingDataSource == null || shardingDataSource.shardCount() < 2) {
+            return;
+        }
+        for (int shard = 0; shard < shardingDataSource.shardCount(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shardingDataSource.shard(shard));
+            for (String reference : USER_REFERENCES) {
+                Integer count = jdbc.queryForObject(reference, Integer.class, userId);
+                if (count != null && count > 0) {
+                    throw new ConflictException("User still has items, bookings or comments");
+                }
+            }
+        }
+    }
+
+    public void replicateAfterCommit(Long userId) {
+        if (shardingDataSource == null || shardingDataSource.shardCount() < 2) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replicateOrQueue(userId, 1);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                replicateOrQueue(userId, 1);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.sharding.replication-retry-delay-ms:5000}")
+    public void retryPending() {
+        for (Long userId : pending.keySet()) {
+            Integer attempts = pending.remove(userId);
+            if (attempts != null) {
+                replicateOrQueue(userId, attempts + 1);
+            }
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void replicateOrQueue(Long userId, int attempt) {
+        try {
+            replicate(userId);
+        } catch (DataAccessException e) {
+            failures.increment();
+            if (attempt >= maxAttempts) {
+                abandoned.increment();
+                log.error("Failed to replicate user {}, giving up after {} attempts", userId, attempt, e);
+                return;
+            }
+            pending.put(userId, attempt);
+            log.error("Failed to replicate user {}, will retry", userId, e);
+        }
+    }
+
+    private void replicate(Long userId) {
+        List<Map<String, Object>> rows = new JdbcTemplate(shardingDataSource.shard(ShardingDataSource.HOME_SHARD))
+                .queryForList("SELECT name, email FROM users WHERE id = ?", userId);
+        for (int shard = 1; shard < shardingDataSource.shardCount(); shard++) {
+            JdbcTemplate copy = new JdbcTemplate(shardingDataSource.shard(shard));
+            if (rows.isEmpty()) {
+                copy.update("DELETE FROM users WHERE id = ?", userId);
+                continue;
+            }
+            Object name = rows.get(0).get("name");
+            Object email = rows.get(0).get("email");
+            if (copy.update("UPDATE users SET name = ?, email = ? WHERE id = ?", name, email, userId) == 0) {
+                copy.update("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", userId, name, email);
+            }
+        }
+    }
+}
@@ -11,10 +11,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Objects;
 
 @Entity
+@DynamicUpdate
 @Table(name = "users", schema = "public")
 @Getter
 @Setter
@@ -1,5 +1,6 @@
 package ru.practicum.user;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.dto.UserResponseDto;
 import ru.practicum.user.dto.UserUpdateDto;
+import ru.practicum.util.JsonPatchSupport;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -39,6 +41,12 @@ public class UserController {
         return userService.update(userId, userUpdateDto);
     }
 
+    @PatchMapping(path = "/{userId}", consumes = JsonPatchSupport.MEDIA_TYPE)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void patchUser(@PathVariable Long userId, @RequestBody JsonNode patch) {
+        userService.patch(userId, patch);
+    }
+
     @GetMapping("/{userId}")
     public UserResponseDto getById(@PathVariable Long userId) {
         return userService.getById(userId);
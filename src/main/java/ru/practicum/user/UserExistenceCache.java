@@ -0,0 +1,74 @@
+package ru.practicum.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Caches which user ids exist. The lookup is read-only and may be served by a lagging replica, so a miss is
+ * confirmed in a read-write transaction, which always runs on the primary, before it is cached.
+ */
+@Component
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final TransactionTemplate onPrimary;
+    private final Cache<Long, Boolean> existing;
+    private final Cache<Long, Boolean> missing;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${shareit.user-cache.max-size:100000}") long maxSize,
+                              @Value("${shareit.user-cache.positive-ttl:10m}") Duration positiveTtl,
+                              @Value("${shareit.user-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.onPrimary = new TransactionTemplate(transactionManager);
+        this.onPrimary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.existing = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(positiveTtl)
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+    }
+
+    public boolean exists(Long userId) {
+        if (existing.getIfPresent(userId) != null) {
+            return true;
+        }
+        if (missing.getIfPresent(userId) != null) {
+            return false;
+        }
+        boolean exists = userRepository.existsById(userId)
+                || Boolean.TRUE.equals(onPrimary.execute(status -> userRepository.existsById(userId)));
+        (exists ? existing : missing).put(userId, Boolean.TRUE);
+        return exists;
+    }
+
+    public void invalidate(Long userId) {
+        existing.invalidate(userId);
+        missing.invalidate(userId);
+    }
+
+    public void invalidateAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.user;
+
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+
+    int updateUser(Long userId, Map<String, Object> values);
+}
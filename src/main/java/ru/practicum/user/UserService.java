@@ -1,5 +1,6 @@
 package ru.practicum.user;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import ru.practicum.user.dto.UserResponseDto;
 import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.dto.UserUpdateDto;
@@ -12,6 +13,8 @@ public interface UserService {
 
     UserResponseDto update(Long userId, UserUpdateDto userUpdateDto);
 
+    void patch(Long userId, JsonNode patch);
+
     UserResponseDto getById(Long id);
 
     List<UserResponseDto> getAll();
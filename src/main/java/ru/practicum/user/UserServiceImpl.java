@@ -1,28 +1,40 @@
 package ru.practicum.user;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.shard.UserReplicator;
 import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.dto.UserResponseDto;
 import ru.practicum.user.dto.UserUpdateDto;
+import ru.practicum.util.JsonPatchSupport;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "email");
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserExistenceCache userExistenceCache;
+    private final JsonPatchSupport jsonPatchSupport;
+    private final UserReplicator userReplicator;
 
     @Override
     @Transactional
     public UserResponseDto save(UserDto userDto) {
         User user = userMapper.toUser(userDto);
         User savedUser = userRepository.save(user);
+        userExistenceCache.invalidateAfterCommit(savedUser.getId());
+        userReplicator.replicateAfterCommit(savedUser.getId());
         return userMapper.toUserResponseDto(savedUser);
     }
 
@@ -33,9 +45,31 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NotFoundException("User not found"));
         userMapper.updateUserFromDto(userUpdateDto, existingUser);
         User updatedUser = userRepository.save(existingUser);
+        userReplicator.replicateAfterCommit(userId);
         return userMapper.toUserResponseDto(updatedUser);
     }
 
+    @Override
+    @Transactional
+    public void patch(Long userId, JsonNode patch) {
+        userReplicator.replicateAfterCommit(userId);
+        Map<String, Object> values = jsonPatchSupport.scalarReplacements(patch, PATCHABLE_FIELDS, UserDto.class);
+        if (values != null) {
+            if (userRepository.updateUser(userId, values) == 0) {
+                throw new NotFoundException("User not found");
+            }
+            return;
+        }
+        User existingUser = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        UserDto current = new UserDto();
+        current.setName(existingUser.getName());
+        current.setEmail(existingUser.getEmail());
+        UserDto patched = jsonPatchSupport.apply(patch, current, PATCHABLE_FIELDS, UserDto.class);
+        existingUser.setName(patched.getName());
+        existingUser.setEmail(patched.getEmail());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserResponseDto getById(Long id) {
@@ -55,6 +89,9 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void delete(Long id) {
+        userReplicator.checkDeletable(id);
         userRepository.deleteById(id);
+        userExistenceCache.invalidateAfterCommit(id);
+        userReplicator.replicateAfterCommit(id);
     }
 }
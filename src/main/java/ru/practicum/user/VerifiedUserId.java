@@ -0,0 +1,17 @@
+package ru.practicum.user;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds the X-Sharer-User-Id header to a controller parameter after checking
+ * that the user exists, so services can trust the id without loading the user.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface VerifiedUserId {
+}
@@ -0,0 +1,57 @@
+package ru.practicum.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import ru.practicum.exception.NotFoundException;
+import ru.practicum.util.HttpHeaders;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VerifiedUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+    private static final String VERIFIED_USER_ID_ATTRIBUTE = VerifiedUserIdArgumentResolver.class.getName() + ".userId";
+
+    private final UserExistenceCache userExistenceCache;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(VerifiedUserId.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        Object verified = webRequest.getAttribute(VERIFIED_USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (verified != null) {
+            return verified;
+        }
+
+        String header = webRequest.getHeader(HttpHeaders.USER_ID_HEADER);
+        if (header == null) {
+            throw new MissingRequestHeaderException(HttpHeaders.USER_ID_HEADER, parameter);
+        }
+        Long userId;
+        try {
+            userId = Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            throw new MethodArgumentTypeMismatchException(header, Long.class, HttpHeaders.USER_ID_HEADER, parameter, e);
+        }
+
+        if (!userExistenceCache.exists(userId)) {
+            log.error("User with id {} not found", userId);
+            throw new NotFoundException("User not found");
+        }
+        webRequest.setAttribute(VERIFIED_USER_ID_ATTRIBUTE, userId, RequestAttributes.SCOPE_REQUEST);
+        return userId;
+    }
+}
@@ -2,4 +2,5 @@ package ru.practicum.util;
 
 public class HttpHeaders {
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 }
@@ -0,0 +1,51 @@
+package ru.practicum.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes second-precision timestamps as {@code yyyy-MM-ddTHH:mm:ss} straight into a char buffer,
+ * producing the same text as {@code ISO_LOCAL_DATE_TIME}. Fractional seconds, out-of-range years,
+ * timestamp output and {@code @JsonFormat} overrides go through the standard serializer.
+ */
+public class IsoLocalDateTimeSerializer extends LocalDateTimeSerializer {
+    private static final int LENGTH = 19;
+
+    public IsoLocalDateTimeSerializer() {
+        super(null);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        int year = value.getYear();
+        if (_formatter != null || value.getNano() != 0 || year < 0 || year > 9999 || useTimestamp(provider)) {
+            super.serialize(value, generator, provider);
+            return;
+        }
+        char[] buffer = new char[LENGTH];
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, value.getSecond(), 2);
+        generator.writeString(buffer, 0, LENGTH);
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.github.fge.jsonpatch.JsonPatchException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.exception.ValidationException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class JsonPatchSupport {
+    public static final String MEDIA_TYPE = "application/json-patch+json";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Returns the new field values if the patch only replaces top-level scalar fields from
+     * {@code fields}, so it can be executed as a single UPDATE; returns null otherwise.
+     */
+    public <T> Map<String, Object> scalarReplacements(JsonNode patch, Set<String> fields, Class<T> dtoType) {
+        checkPaths(patch, fields);
+        Map<String, JsonNode> replacements = new LinkedHashMap<>();
+        for (JsonNode operation : patch) {
+            JsonNode value = operation.get("value");
+            if (!"replace".equals(operation.path("op").asText())
+                    || value == null || !value.isValueNode() || value.isNull()) {
+                return null;
+            }
+            String field = operation.path("path").asText().substring(1);
+            if (!fields.contains(field)) {
+                return null;
+            }
+            replacements.put(field, value);
+        }
+
+        T dto = convert(objectMapper.valueToTree(replacements), dtoType);
+        BeanWrapper dtoWrapper = PropertyAccessorFactory.forBeanPropertyAccess(dto);
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : replacements.keySet()) {
+            validate(validator.validateProperty(dto, field));
+            values.put(field, dtoWrapper.getPropertyValue(field));
+        }
+        return values;
+    }
+
+    public <T> T apply(JsonNode patch, T target, Set<String> fields, Class<T> dtoType) {
+        checkPaths(patch, fields);
+        try {
+            JsonNode patched = JsonPatch.fromJson(patch).apply(objectMapper.valueToTree(target));
+            T dto = convert(patched, dtoType);
+            validate(validator.validate(dto));
+            return dto;
+        } catch (IOException | JsonPatchException e) {
+            throw new ValidationException("Invalid JSON patch: " + e.getMessage());
+        }
+    }
+
+    private void checkPaths(JsonNode patch, Set<String> fields) {
+        if (patch == null || !patch.isArray() || patch.isEmpty()) {
+            throw new ValidationException("JSON patch must be a non-empty array of operations");
+        }
+        for (JsonNode operation : patch) {
+            checkPath(operation.path("path").asText(null), fields);
+            if (operation.has("from")) {
+                checkPath(operation.path("from").asText(null), fields);
+            }
+        }
+    }
+
+    private static void checkPath(String path, Set<String> fields) {
+        if (path == null || !path.startsWith("/") || !fields.contains(path.substring(1).split("/", 2)[0])) {
+            throw new ValidationException("JSON patch path is not editable: " + path);
+        }
+    }
+
+    private <T> T convert(JsonNode node, Class<T> dtoType) {
+        try {
+            return objectMapper.treeToValue(node, dtoType);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Invalid JSON patch value: " + e.getOriginalMessage());
+        }
+    }
+
+    private static <T> void validate(Set<ConstraintViolation<T>> violations) {
+        if (!violations.isEmpty()) {
+            ConstraintViolation<T> violation = violations.iterator().next();
+            throw new ValidationException(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a JSON array while its elements are still being read. The producer pushes each element into the sink
+ * as it comes off the database cursor, and the response is flushed every {@code flush-every} elements, so the
+ * first chunk leaves before the last row is fetched and no full list is held in memory. Once the first chunk
+ * is out the status is committed, so a read that fails later cuts the array short.
+ */
+@Component
+public class JsonStreamingSupport {
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter elementWriter;
+    private final int flushEvery;
+
+    public JsonStreamingSupport(ObjectMapper objectMapper,
+                                @Value("${shareit.json.flush-every:100}") int flushEvery) {
+        this.objectMapper = objectMapper;
+        this.elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushEvery = Math.max(1, flushEvery);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> array(Consumer<Consumer<T>> producer) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> write(producer, out));
+    }
+
+    private <T> void write(Consumer<Consumer<T>> producer, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            int[] written = {0};
+            try {
+                producer.accept(value -> {
+                    try {
+                        elementWriter.writeValue(generator, value);
+                        if (++written[0] % flushEvery == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Fails every lazy load that runs outside a transaction, even when a session is still open, so a mapping
+ * that reaches past its query's fetch plan breaks at once instead of quietly running a query while the
+ * response is rendered.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.jpa", name = "strict-lazy-loading", havingValue = "true")
+public class LazyLoadingGuard {
+
+    public LazyLoadingGuard(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listeners.prependListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event ->
+                requireTransaction(event.getCollection().getRole()));
+        listeners.prependListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+            if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+                requireTransaction(event.getEntityClassName() + "#" + event.getEntityId());
+            }
+        });
+    }
+
+    private static void requireTransaction(String target) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new LazyInitializationException("Lazy loading of " + target
+                    + " outside a transaction; add it to the fetch plan of the query that loaded it");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.util;
+
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.exception.ValidationException;
+
+public class Pagination {
+
+    private Pagination() {
+    }
+
+    public static PageRequest of(Integer from, Integer size) {
+        if (from == null || from < 0) {
+            throw new ValidationException("from must not be negative");
+        }
+        if (size == null || size < 1) {
+            throw new ValidationException("size must be positive");
+        }
+        return PageRequest.of(from / size, size);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.warmup;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Controller;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.event.DomainEventListener;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Narrows the {@code faststart} profile's lazy initialization to beans off the request path. The database,
+ * JPA and web infrastructure, the controllers with everything they inject, and scheduled or event-driven
+ * beans are still created at startup, so their failures stop the boot and the first request pays for none
+ * of them.
+ */
+@Configuration
+public class FastStartLazyInitConfig {
+    private static final List<Class<?>> EAGER_TYPES = List.of(
+            DataSource.class, EntityManagerFactory.class, PlatformTransactionManager.class, Flyway.class,
+            FlywayMigrationInitializer.class, Repository.class, HandlerMapping.class, HandlerAdapter.class,
+            HandlerInterceptor.class, HandlerMethodArgumentResolver.class, WebMvcConfigurer.class,
+            DomainEventListener.class);
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerRequestPath() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && (isEagerType(beanType)
+                || AnnotatedElementUtils.hasAnnotation(beanType, Controller.class)
+                || AnnotatedElementUtils.hasAnnotation(beanType, ControllerAdvice.class)
+                || isScheduled(beanType));
+    }
+
+    private static boolean isEagerType(Class<?> beanType) {
+        return EAGER_TYPES.stream().anyMatch(type -> type.isAssignableFrom(beanType));
+    }
+
+    private static boolean isScheduled(Class<?> beanType) {
+        return Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+}
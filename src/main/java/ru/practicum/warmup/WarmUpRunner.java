@@ -0,0 +1,152 @@
+package ru.practicum.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingMapper;
+import ru.practicum.booking.BookingSearchCriteria;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.booking.handler.BookingStateHandlerChain;
+import ru.practicum.item.Comment;
+import ru.practicum.item.CommentMapper;
+import ru.practicum.item.Item;
+import ru.practicum.item.ItemMapper;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.shard.ShardRouter;
+import ru.practicum.user.User;
+import ru.practicum.util.Pagination;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the booking list queries and the mapping/serialization path before the application reports
+ * readiness, so the first real requests do not pay for query plan compilation and cold JIT code. The booker
+ * lists are read through the state handlers directly, since {@code getUserBookings} skips them when the booker
+ * timeline is on, and the owner lists through the criteria queries with and without the search filters.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.warmup.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final long UNKNOWN_USER_ID = -1L;
+
+    private final BookingService bookingService;
+    private final BookingStateHandlerChain handlerChain;
+    private final ShardRouter shardRouter;
+    private final BookingMapper bookingMapper;
+    private final ItemMapper itemMapper;
+    private final CommentMapper commentMapper;
+    private final ObjectMapper objectMapper;
+    private final int iterations;
+
+    public WarmUpRunner(BookingService bookingService,
+                        BookingStateHandlerChain handlerChain,
+                        ShardRouter shardRouter,
+                        BookingMapper bookingMapper,
+                        ItemMapper itemMapper,
+                        CommentMapper commentMapper,
+                        ObjectMapper objectMapper,
+                        @Value("${shareit.warmup.iterations:5000}") int iterations) {
+        this.bookingService = bookingService;
+        this.handlerChain = handlerChain;
+        this.shardRouter = shardRouter;
+        this.bookingMapper = bookingMapper;
+        this.itemMapper = itemMapper;
+        this.commentMapper = commentMapper;
+        this.objectMapper = objectMapper;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (String state : STATES) {
+                shardRouter.readEachShard(() ->
+                        handlerChain.getHandler(state).handle(UNKNOWN_USER_ID, Pagination.of(0, 10), now));
+                bookingService.getOwnerBookings(UNKNOWN_USER_ID, state, 0, 10);
+            }
+            bookingService.searchOwnerBookings(UNKNOWN_USER_ID, sampleSearch(now), 10);
+            long bytes = serializeSamples();
+            log.info("Warm-up finished in {} ms: {} iterations, {} bytes serialized",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), iterations, bytes);
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.warn("Warm-up aborted, continuing startup", e);
+        }
+    }
+
+    private long serializeSamples() throws JsonProcessingException {
+        Booking booking = sampleBooking();
+        Comment comment = sampleComment(booking);
+        long bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            BookingResponseDto response = bookingMapper.toResponseDto(booking);
+            ItemDto item = itemMapper.toItemDto(booking.getItem());
+            item.setComments(List.of(commentMapper.toDto(comment)));
+            bytes += objectMapper.writeValueAsBytes(response).length;
+            bytes += objectMapper.writeValueAsBytes(bookingMapper.toCompactDto(response)).length;
+            bytes += objectMapper.writeValueAsBytes(item).length;
+        }
+        return bytes;
+    }
+
+    private static BookingSearchCriteria sampleSearch(LocalDateTime now) {
+        BookingSearchCriteria criteria = new BookingSearchCriteria();
+        criteria.setItemIds(List.of(UNKNOWN_USER_ID));
+        criteria.setBookerId(UNKNOWN_USER_ID);
+        criteria.setStatuses(EnumSet.of(Booking.BookingStatus.APPROVED));
+        criteria.setEndAfter(now.minusDays(1));
+        criteria.setStartBefore(now);
+        criteria.setAfterStart(now);
+        criteria.setAfterId(Long.MAX_VALUE);
+        return criteria;
+    }
+
+    private static Booking sampleBooking() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        User booker = new User();
+        booker.setId(2L);
+        booker.setName("booker");
+        booker.setEmail("booker@example.com");
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("item");
+        item.setDescription("warm-up item");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(Booking.BookingStatus.APPROVED);
+        return booking;
+    }
+
+    private static Comment sampleComment(Booking booking) {
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setText("warm-up comment");
+        comment.setItem(booking.getItem());
+        comment.setAuthor(booking.getBooker());
+        comment.setCreated(LocalDateTime.now());
+        return comment;
+    }
+}
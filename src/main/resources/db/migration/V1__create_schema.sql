@@ -38,4 +38,19 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id),
   CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (id),
   CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  type VARCHAR(50) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  item_id BIGINT,
+  owner_id BIGINT,
+  user_id BIGINT,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  attempts INTEGER NOT NULL DEFAULT 0,
+  processed_at TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS bookings_archive (
+  id BIGINT NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  CONSTRAINT pk_booking_archive PRIMARY KEY (id),
+  CONSTRAINT fk_bookings_archive_to_items FOREIGN KEY (item_id) REFERENCES items (id),
+  CONSTRAINT fk_bookings_archive_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_status_start ON bookings_archive (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_booker_end ON bookings_archive (item_id, booker_id, end_date);
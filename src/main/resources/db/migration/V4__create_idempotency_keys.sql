@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  id VARCHAR(400) NOT NULL,
+  request_hash VARCHAR(64) NOT NULL,
+  response VARCHAR(100000) NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_idempotency_key PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created ON idempotency_keys (created);
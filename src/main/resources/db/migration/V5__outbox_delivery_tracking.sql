@@ -0,0 +1,2 @@
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS delivered_to VARCHAR(1000);
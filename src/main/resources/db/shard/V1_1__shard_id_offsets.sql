@@ -0,0 +1,3 @@
+ALTER TABLE items ALTER COLUMN id RESTART WITH ${id_offset};
+ALTER TABLE bookings ALTER COLUMN id RESTART WITH ${id_offset};
+ALTER TABLE comments ALTER COLUMN id RESTART WITH ${id_offset};
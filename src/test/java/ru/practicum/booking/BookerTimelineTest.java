@@ -0,0 +1,131 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.booking.handler.BookingStateHandlerChain;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.Pagination;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages every state from the timeline and from the per-state handlers over the same bookings and expects the
+ * same ids. Several bookings share a start, including hot and archived bookings on either side of the archive
+ * horizon, so the tie order is covered as well.
+ */
+@SpringBootTest(properties = "shareit.booking.timeline.enabled=true")
+@ActiveProfiles("test")
+class BookerTimelineTest {
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final int[] PAGE_SIZES = {1, 2, 3, 5, 50};
+
+    @Autowired
+    private BookerTimeline bookerTimeline;
+    @Autowired
+    private BookingStateHandlerChain handlerChain;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private Long bookerId;
+    private Long itemId;
+    private int created;
+
+    @BeforeEach
+    void setUp() {
+        Long ownerId = createUser();
+        bookerId = createUser();
+        ItemDto item = new ItemDto();
+        item.setName("Ladder");
+        item.setDescription("Folding ladder");
+        item.setAvailable(true);
+        itemId = itemService.create(item, ownerId).getId();
+
+        for (int i = 0; i < 3; i++) {
+            book(now.plusDays(1), now.plusDays(2), Booking.BookingStatus.values()[i % 3]);
+        }
+        book(now.plusDays(3), now.plusDays(4), Booking.BookingStatus.APPROVED);
+        book(now.minusHours(1), now.plusHours(1), Booking.BookingStatus.APPROVED);
+        book(now.minusHours(1), now.plusHours(2), Booking.BookingStatus.WAITING);
+        book(now.minusDays(10), now.minusDays(9), Booking.BookingStatus.APPROVED);
+        book(now.minusDays(10), now.minusDays(9), Booking.BookingStatus.REJECTED);
+        book(now.minusDays(5), now.minusDays(4), Booking.BookingStatus.APPROVED);
+        book(now.minusDays(200), now.minusDays(199), Booking.BookingStatus.REJECTED);
+        archive(book(now.minusDays(200), now.minusDays(199), Booking.BookingStatus.APPROVED));
+        archive(book(now.minusDays(200), now.minusDays(199), Booking.BookingStatus.REJECTED));
+        archive(book(now.minusDays(300), now.minusDays(299), Booking.BookingStatus.APPROVED));
+        bookerTimeline.invalidate(bookerId);
+    }
+
+    @Test
+    void timelinePagesMatchTheStateHandlers() {
+        assertTimelineMatchesHandlers();
+    }
+
+    @Test
+    void bookingAddedToALoadedTimelineKeepsTheTieOrder() {
+        bookerTimeline.page(bookerId, "ALL", now, 0, 1);
+
+        LocalDateTime start = now.plusDays(1);
+        bookingService.createBooking(bookerId, new BookingDto(null, start, start.plusDays(1), itemId, bookerId, null));
+
+        assertTimelineMatchesHandlers();
+    }
+
+    private void assertTimelineMatchesHandlers() {
+        for (String state : STATES) {
+            for (int size : PAGE_SIZES) {
+                for (int from = 0; from <= created; from += size) {
+                    List<Long> expected = handlerChain.getHandler(state)
+                            .handle(bookerId, Pagination.of(from, size), now).stream()
+                            .map(Booking::getId)
+                            .toList();
+                    assertThat(bookerTimeline.page(bookerId, state, now, from, size))
+                            .as("%s from %d size %d", state, from, size)
+                            .containsExactlyElementsOf(expected);
+                }
+            }
+        }
+    }
+
+    private Long book(LocalDateTime start, LocalDateTime end, Booking.BookingStatus status) {
+        LocalDateTime placeholder = now.plusYears(1).plusDays(created++);
+        Long id = bookingService.createBooking(bookerId,
+                new BookingDto(null, placeholder, placeholder.plusHours(1), itemId, bookerId, null)).getId();
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ?, status = ? WHERE id = ?",
+                start, end, status.name(), id);
+        return id;
+    }
+
+    private void archive(Long id) {
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings WHERE id = ?", id);
+        jdbcTemplate.update("DELETE FROM bookings WHERE id = ?", id);
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+}
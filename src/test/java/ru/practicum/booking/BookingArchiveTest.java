@@ -0,0 +1,193 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.booking.handler.BookingStateHandlerChain;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.Pagination;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archives bookings with the default 90-day retention and pages the booker and owner lists across the archive
+ * horizon. Several bookings share a start on both sides of it, since a booking still waiting for a decision
+ * is never archived.
+ */
+@SpringBootTest(properties = {
+        "shareit.booking.archive.enabled=true",
+        "shareit.booking.archive.delay-ms=3600000"
+})
+@ActiveProfiles("test")
+class BookingArchiveTest {
+    private static final int[] PAGE_SIZES = {1, 2, 3, 4, 20};
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+    @Autowired
+    private BookingArchive bookingArchive;
+    @Autowired
+    private BookingStateHandlerChain handlerChain;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private int created;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        ItemDto item = new ItemDto();
+        item.setName("Kayak");
+        item.setDescription("Sea kayak");
+        item.setAvailable(true);
+        itemId = itemService.create(item, ownerId).getId();
+    }
+
+    @Test
+    void archiverMovesOnlyDecidedBookingsEndedBeforeTheRetention() {
+        Long approved = book(now.minusDays(101), now.minusDays(100), Booking.BookingStatus.APPROVED);
+        Long rejected = book(now.minusDays(101), now.minusDays(100), Booking.BookingStatus.REJECTED);
+        Long waiting = book(now.minusDays(101), now.minusDays(100), Booking.BookingStatus.WAITING);
+        Long recent = book(now.minusDays(11), now.minusDays(10), Booking.BookingStatus.APPROVED);
+
+        bookingArchiver.archive();
+
+        for (Long id : List.of(approved, rejected)) {
+            assertThat(count("bookings", id)).isZero();
+            assertThat(count("bookings_archive", id)).isEqualTo(1);
+        }
+        for (Long id : List.of(waiting, recent)) {
+            assertThat(count("bookings", id)).isEqualTo(1);
+            assertThat(count("bookings_archive", id)).isZero();
+        }
+        assertThat(bookingService.getBookingById(bookerId, approved).getStatus())
+                .isEqualTo(Booking.BookingStatus.APPROVED.name());
+    }
+
+    @Test
+    void pagesAcrossTheHorizonKeepTheUnarchivedOrder() {
+        createBookingsAroundTheHorizon();
+        List<Long> all = idsByStartDesc("");
+        List<Long> past = idsByStartDesc(" AND end_date < ?");
+
+        bookingArchiver.archive();
+        assertThat(countArchived()).isEqualTo(5);
+
+        assertPages(all, (from, size) -> bookerPage("ALL", from, size));
+        assertPages(past, (from, size) -> bookerPage("PAST", from, size));
+        assertPages(all, (from, size) -> ownerSearchPage(from, size));
+    }
+
+    @Test
+    void bookingArchivedBetweenTheTwoReadsIsListedOnce() {
+        createBookingsAroundTheHorizon();
+        List<Long> all = idsByStartDesc("");
+        bookingArchiver.archive();
+        Long stillHot = book(now.minusDays(250), now.minusDays(249), Booking.BookingStatus.APPROVED);
+        List<Long> expected = new ArrayList<>(all);
+        expected.add(all.size() - 2, stillHot);
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings WHERE id = ?", stillHot);
+
+        try {
+            assertPages(expected, (from, size) -> bookerPage("ALL", from, size));
+            assertPages(expected, (from, size) -> ownerSearchPage(from, size));
+        } finally {
+            jdbcTemplate.update("DELETE FROM bookings_archive WHERE id = ?", stillHot);
+        }
+    }
+
+    private void createBookingsAroundTheHorizon() {
+        book(now.plusDays(1), now.plusDays(2), Booking.BookingStatus.WAITING);
+        book(now.minusDays(5), now.minusDays(4), Booking.BookingStatus.APPROVED);
+        for (Booking.BookingStatus status : List.of(Booking.BookingStatus.APPROVED, Booking.BookingStatus.WAITING,
+                Booking.BookingStatus.REJECTED, Booking.BookingStatus.APPROVED)) {
+            book(now.minusDays(200), now.minusDays(199), status);
+        }
+        book(now.minusDays(300), now.minusDays(299), Booking.BookingStatus.APPROVED);
+        book(now.minusDays(300), now.minusDays(299), Booking.BookingStatus.REJECTED);
+    }
+
+    private void assertPages(List<Long> expected, BiFunction<Integer, Integer, List<Long>> pages) {
+        for (int size : PAGE_SIZES) {
+            List<Long> paged = new ArrayList<>();
+            for (int from = 0; from < expected.size() + size; from += size) {
+                paged.addAll(pages.apply(from, size));
+            }
+            assertThat(paged).as("pages of %d", size).containsExactlyElementsOf(expected);
+        }
+    }
+
+    private List<Long> bookerPage(String state, int from, int size) {
+        return handlerChain.getHandler(state).handle(bookerId, Pagination.of(from, size), now).stream()
+                .map(Booking::getId)
+                .toList();
+    }
+
+    private List<Long> ownerSearchPage(int from, int size) {
+        return bookingArchive.search(BookingSearchCriteria.forOwnerState(ownerId, "ALL", now),
+                        Pagination.of(from, size), now).stream()
+                .map(Booking::getId)
+                .toList();
+    }
+
+    private List<Long> idsByStartDesc(String condition) {
+        String sql = "SELECT id FROM bookings WHERE booker_id = ?" + condition + " ORDER BY start_date DESC, id DESC";
+        return condition.isEmpty()
+                ? jdbcTemplate.queryForList(sql, Long.class, bookerId)
+                : jdbcTemplate.queryForList(sql, Long.class, bookerId, now);
+    }
+
+    private Long book(LocalDateTime start, LocalDateTime end, Booking.BookingStatus status) {
+        LocalDateTime placeholder = now.plusYears(1).plusDays(created++);
+        Long id = bookingService.createBooking(bookerId,
+                new BookingDto(null, placeholder, placeholder.plusHours(1), itemId, bookerId, null)).getId();
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ?, status = ? WHERE id = ?",
+                start, end, status.name(), id);
+        return id;
+    }
+
+    private int countArchived() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings_archive WHERE booker_id = ?",
+                Integer.class, bookerId);
+        return count != null ? count : 0;
+    }
+
+    private int count(String table, Long id) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?",
+                Integer.class, id);
+        return count != null ? count : 0;
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+}
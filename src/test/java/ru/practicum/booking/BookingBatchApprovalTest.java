@@ -0,0 +1,180 @@
+package ru.practicum.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.booking.dto.BookingBatchApprovalDto;
+import ru.practicum.booking.dto.BookingDecisionDto;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.HttpHeaders;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends one {@code PATCH /bookings/batch} with a decision of every outcome and checks both the per-booking
+ * results and the statuses left in the database. Archived bookings are decided, so they are already processed
+ * for their owner and forbidden to anyone else.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingBatchApprovalTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long otherItemId;
+    private int created;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        itemId = createItem(ownerId);
+        otherItemId = createItem(createUser());
+    }
+
+    @Test
+    void everyDecisionGetsItsOwnOutcome() throws Exception {
+        Long approved = book(itemId, now.plusDays(1), now.plusDays(3), Booking.BookingStatus.WAITING);
+        Long overlapping = book(itemId, now.plusDays(2), now.plusDays(4), Booking.BookingStatus.WAITING);
+        Long rejected = book(itemId, now.plusDays(2), now.plusDays(4), Booking.BookingStatus.WAITING);
+        Long adjacent = book(itemId, now.plusDays(3), now.plusDays(5), Booking.BookingStatus.WAITING);
+        Long contradictory = book(itemId, now.plusDays(10), now.plusDays(11), Booking.BookingStatus.WAITING);
+        Long processed = book(itemId, now.minusDays(5), now.minusDays(4), Booking.BookingStatus.REJECTED);
+        Long archived = archive(book(itemId, now.minusDays(200), now.minusDays(199), Booking.BookingStatus.APPROVED));
+        Long foreign = book(otherItemId, now.plusDays(1), now.plusDays(2), Booking.BookingStatus.WAITING);
+        Long foreignArchived = archive(book(otherItemId, now.minusDays(200), now.minusDays(199),
+                Booking.BookingStatus.APPROVED));
+        Long missing = Long.MAX_VALUE;
+
+        Map<Long, String> results = approve(List.of(
+                new BookingDecisionDto(approved, true),
+                new BookingDecisionDto(overlapping, true),
+                new BookingDecisionDto(rejected, false),
+                new BookingDecisionDto(adjacent, true),
+                new BookingDecisionDto(contradictory, true),
+                new BookingDecisionDto(processed, true),
+                new BookingDecisionDto(archived, false),
+                new BookingDecisionDto(foreign, true),
+                new BookingDecisionDto(foreignArchived, true),
+                new BookingDecisionDto(missing, true),
+                new BookingDecisionDto(contradictory, false)));
+
+        Map<Long, String> expected = new LinkedHashMap<>();
+        expected.put(approved, "APPROVED");
+        expected.put(overlapping, "CONFLICT");
+        expected.put(rejected, "REJECTED");
+        expected.put(adjacent, "APPROVED");
+        expected.put(contradictory, "CONFLICT");
+        expected.put(processed, "ALREADY_PROCESSED");
+        expected.put(archived, "ALREADY_PROCESSED");
+        expected.put(foreign, "FORBIDDEN");
+        expected.put(foreignArchived, "FORBIDDEN");
+        expected.put(missing, "NOT_FOUND");
+        assertThat(results).containsExactlyEntriesOf(expected);
+
+        assertThat(statusOf(approved)).isEqualTo("APPROVED");
+        assertThat(statusOf(overlapping)).isEqualTo("WAITING");
+        assertThat(statusOf(rejected)).isEqualTo("REJECTED");
+        assertThat(statusOf(adjacent)).isEqualTo("APPROVED");
+        assertThat(statusOf(contradictory)).isEqualTo("WAITING");
+        assertThat(statusOf(processed)).isEqualTo("REJECTED");
+        assertThat(statusOf(foreign)).isEqualTo("WAITING");
+    }
+
+    @Test
+    void rejectedBookingDoesNotBlockAnOverlappingApproval() throws Exception {
+        Long rejected = book(itemId, now.plusDays(1), now.plusDays(3), Booking.BookingStatus.WAITING);
+        Long approved = book(itemId, now.plusDays(2), now.plusDays(4), Booking.BookingStatus.WAITING);
+
+        Map<Long, String> results = approve(List.of(
+                new BookingDecisionDto(rejected, false),
+                new BookingDecisionDto(approved, true)));
+
+        assertThat(results).containsExactly(Map.entry(rejected, "REJECTED"), Map.entry(approved, "APPROVED"));
+    }
+
+    private Map<Long, String> approve(List<BookingDecisionDto> decisions) throws Exception {
+        String response = mockMvc.perform(patch("/bookings/batch")
+                        .header(HttpHeaders.USER_ID_HEADER, ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingBatchApprovalDto(decisions))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Map<Long, String> results = new LinkedHashMap<>();
+        for (JsonNode result : objectMapper.readTree(response)) {
+            results.put(result.get("bookingId").asLong(), result.get("result").asText());
+        }
+        return results;
+    }
+
+    private Long book(Long bookedItemId, LocalDateTime start, LocalDateTime end, Booking.BookingStatus status) {
+        LocalDateTime placeholder = now.plusYears(1).plusDays(created++);
+        Long id = bookingService.createBooking(bookerId,
+                new BookingDto(null, placeholder, placeholder.plusHours(1), bookedItemId, bookerId, null)).getId();
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ?, status = ? WHERE id = ?",
+                start, end, status.name(), id);
+        return id;
+    }
+
+    private Long archive(Long id) {
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings WHERE id = ?", id);
+        jdbcTemplate.update("DELETE FROM bookings WHERE id = ?", id);
+        return id;
+    }
+
+    private String statusOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, id);
+    }
+
+    private Long createItem(Long owner) {
+        ItemDto item = new ItemDto();
+        item.setName("Canoe");
+        item.setDescription("Two-seat canoe");
+        item.setAvailable(true);
+        return itemService.create(item, owner).getId();
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+}
@@ -0,0 +1,230 @@
+package ru.practicum.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.CommentRepository;
+import ru.practicum.item.ItemRepository;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Captures the SQL of the booker state handlers, the owner list and search criteria queries and every other
+ * repository query on bookings, items and comments, runs {@code EXPLAIN} on each and fails when a table is read
+ * without an index lookup: either a table scan or an index whose leading column is not bound by the query.
+ * The item text search is left out: its {@code LIKE '%text%'} cannot use a B-tree index. There is no
+ * requests table yet; {@code findByRequestId} covers the items side of that lookup.
+ */
+@SpringBootTest(properties = {
+        "shareit.booking.timeline.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.booking.BookingQueryPlanTest$CapturingInspector"
+})
+@ActiveProfiles("test")
+class BookingQueryPlanTest {
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final String[] TABLES = {"bookings", "bookings_archive", "items", "comments", "requests"};
+    private static final Pattern TABLE_ACCESS =
+            Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_.]+?)(?:\\.tableScan)?(?:: (.*?))? \\*/", Pattern.DOTALL);
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingArchiveRepository archiveRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        ItemDto item = new ItemDto();
+        item.setName("Saw");
+        item.setDescription("Hand saw");
+        item.setAvailable(true);
+        itemId = itemService.create(item, ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingId = bookingService.createBooking(bookerId,
+                new BookingDto(null, start, start.plusDays(1), itemId, bookerId, null)).getId();
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void bookerStateHandlersUseIndexes() {
+        for (String state : STATES) {
+            bookingService.getUserBookings(bookerId, state, 0, 10);
+        }
+
+        assertIndexedPlans(capturedSelects());
+    }
+
+    @Test
+    void ownerListsAndSearchUseIndexes() {
+        for (String state : STATES) {
+            bookingService.getOwnerBookings(ownerId, state, 0, 10);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BookingSearchCriteria byItemAndStatus = new BookingSearchCriteria();
+        byItemAndStatus.setItemIds(List.of(itemId));
+        byItemAndStatus.setStatuses(BookingSearchCriteria.parseStatuses(List.of("WAITING", "APPROVED")));
+        BookingSearchCriteria byBookerAndRange = new BookingSearchCriteria();
+        byBookerAndRange.setBookerId(bookerId);
+        byBookerAndRange.setEndAfter(now.minusDays(30));
+        byBookerAndRange.setStartBefore(now.plusDays(30));
+        BookingSearchCriteria nextPage = new BookingSearchCriteria();
+        nextPage.setAfterStart(now.plusDays(2));
+        nextPage.setAfterId(Long.MAX_VALUE);
+        for (BookingSearchCriteria criteria : List.of(new BookingSearchCriteria(), byItemAndStatus,
+                byBookerAndRange, nextPage)) {
+            bookingService.searchOwnerBookings(ownerId, criteria, 10);
+        }
+
+        assertIndexedPlans(capturedSelects());
+    }
+
+    @Test
+    void bookingLookupsUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.findById(bookingId);
+        bookingRepository.findAllById(List.of(bookingId));
+        bookingRepository.findApprovalTargets(List.of(bookingId));
+        bookingRepository.findLastBooking(itemId, now);
+        bookingRepository.findNextBooking(itemId, now);
+        bookingRepository.findCompletedBookings(itemId, bookerId, now);
+        bookingRepository.findByItemIdAndBookerIdAndEndBefore(itemId, bookerId, now);
+        bookingRepository.findByItemIdAndBookerIdAndEndBeforeAndStatus(itemId, bookerId, now,
+                Booking.BookingStatus.APPROVED);
+        bookingRepository.aggregateByOwner(ownerId, now, now.minusDays(30));
+        bookingRepository.findLastBookingsByOwner(ownerId, now);
+        bookingRepository.findNextBookingsByOwner(ownerId, now);
+        bookingRepository.findTimelineByBookerId(bookerId);
+        bookingRepository.findArchivableIds(now, PageRequest.of(0, 10));
+
+        assertIndexedPlans(capturedSelects());
+    }
+
+    @Test
+    void archiveLookupsUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        archiveRepository.findById(bookingId);
+        archiveRepository.findAllById(List.of(bookingId));
+        archiveRepository.findLastBooking(itemId, now, PageRequest.of(0, 1));
+        archiveRepository.findLastBookingsByItemIds(List.of(itemId), now);
+        archiveRepository.existsByItemIdAndBookerIdAndEndBeforeAndStatus(itemId, bookerId, now,
+                Booking.BookingStatus.APPROVED);
+        archiveRepository.aggregateByOwner(ownerId);
+        archiveRepository.findTimelineByBookerId(bookerId);
+
+        assertIndexedPlans(capturedSelects());
+    }
+
+    @Test
+    void itemAndCommentQueriesUseIndexes() {
+        itemRepository.findById(itemId);
+        itemRepository.findByOwnerIdOrderById(ownerId);
+        itemRepository.findByRequestId(1L);
+        commentRepository.findByItemIdOrderById(itemId);
+        commentRepository.findByItemOwnerIdOrderById(ownerId);
+
+        assertIndexedPlans(capturedSelects());
+    }
+
+    private void assertIndexedPlans(Set<String> statements) {
+        List<String> checked = new ArrayList<>();
+        for (String sql : statements) {
+            if (!readsAny(sql, TABLES)) {
+                continue;
+            }
+            checked.add(sql);
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            Matcher access = TABLE_ACCESS.matcher(plan);
+            while (access.find()) {
+                assertThat(access.group(0)).as("plan of %s%n%s", sql, plan).doesNotContain("tableScan");
+                String leading = leadingColumn(access.group(1));
+                assertThat(access.group(2)).as("index %s in plan of %s%n%s", access.group(1), sql, plan)
+                        .isNotNull()
+                        .containsPattern("\\b" + leading + " (= |IN\\(|< |<= |> |>= )");
+            }
+        }
+        assertThat(checked).isNotEmpty();
+    }
+
+    private String leadingColumn(String index) {
+        return jdbcTemplate.queryForObject("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                + "WHERE INDEX_SCHEMA = 'PUBLIC' AND INDEX_NAME = ? AND ORDINAL_POSITION = 1", String.class, index);
+    }
+
+    private static boolean readsAny(String sql, String... tables) {
+        String lower = sql.toLowerCase(Locale.ROOT);
+        for (String table : tables) {
+            if (lower.matches("(?s).*\\bfrom (public\\.)?" + table + "\\b.*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> capturedSelects() {
+        Set<String> selects = new LinkedHashSet<>();
+        for (String sql : CapturingInspector.STATEMENTS) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                selects.add(sql);
+            }
+        }
+        return selects;
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package ru.practicum.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.HttpHeaders;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls {@code GET /bookings/owner/search} with each filter on its own and together, and pages the results with
+ * the {@code afterStart}/{@code afterId} cursor. Three bookings share a start and two archived bookings share
+ * another, so continuing after a tie and merging the archive are both covered.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OwnerBookingSearchTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private Long ownerId;
+    private Long bookerId;
+    private Long otherBookerId;
+    private Long drillId;
+    private Long sawId;
+    private int created;
+
+    private Long futureWaiting;
+    private Long futureApproved;
+    private Long futureRejected;
+    private Long current;
+    private Long past;
+    private Long archivedApproved;
+    private Long archivedRejected;
+    private Long archivedOldest;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        otherBookerId = createUser();
+        drillId = createItem("Drill");
+        sawId = createItem("Saw");
+
+        futureWaiting = book(drillId, bookerId, now.plusDays(1), now.plusDays(2), Booking.BookingStatus.WAITING);
+        futureApproved = book(drillId, otherBookerId, now.plusDays(1), now.plusDays(2),
+                Booking.BookingStatus.APPROVED);
+        futureRejected = book(sawId, bookerId, now.plusDays(1), now.plusDays(2), Booking.BookingStatus.REJECTED);
+        current = book(drillId, bookerId, now.minusHours(1), now.plusHours(1), Booking.BookingStatus.APPROVED);
+        past = book(sawId, otherBookerId, now.minusDays(5), now.minusDays(4), Booking.BookingStatus.APPROVED);
+        archivedApproved = archive(book(drillId, bookerId, now.minusDays(200), now.minusDays(199),
+                Booking.BookingStatus.APPROVED));
+        archivedRejected = archive(book(sawId, otherBookerId, now.minusDays(200), now.minusDays(199),
+                Booking.BookingStatus.REJECTED));
+        archivedOldest = archive(book(drillId, otherBookerId, now.minusDays(300), now.minusDays(299),
+                Booking.BookingStatus.APPROVED));
+    }
+
+    @Test
+    void eachFilterNarrowsTheResults() throws Exception {
+        assertThat(ids(search())).containsExactly(futureRejected, futureApproved, futureWaiting, current, past,
+                archivedRejected, archivedApproved, archivedOldest);
+        assertThat(ids(search().param("itemId", drillId.toString())))
+                .containsExactly(futureApproved, futureWaiting, current, archivedApproved, archivedOldest);
+        assertThat(ids(search().param("itemId", drillId.toString(), sawId.toString())))
+                .containsExactly(futureRejected, futureApproved, futureWaiting, current, past,
+                        archivedRejected, archivedApproved, archivedOldest);
+        assertThat(ids(search().param("status", "WAITING", "REJECTED")))
+                .containsExactly(futureRejected, futureWaiting, archivedRejected);
+        assertThat(ids(search().param("bookerId", bookerId.toString())))
+                .containsExactly(futureRejected, futureWaiting, current, archivedApproved);
+        assertThat(ids(search()
+                .param("rangeFrom", now.minusDays(6).toString())
+                .param("rangeTo", now.toString())))
+                .containsExactly(current, past);
+        assertThat(ids(search().param("rangeTo", now.minusDays(100).toString())))
+                .containsExactly(archivedRejected, archivedApproved, archivedOldest);
+        assertThat(ids(search()
+                .param("itemId", drillId.toString())
+                .param("status", "APPROVED")
+                .param("bookerId", bookerId.toString())))
+                .containsExactly(current, archivedApproved);
+    }
+
+    @Test
+    void pagingParametersAreNotTakenForTheRange() throws Exception {
+        assertThat(ids(search().param("from", "0").param("to", "10")))
+                .containsExactly(futureRejected, futureApproved, futureWaiting, current, past,
+                        archivedRejected, archivedApproved, archivedOldest);
+    }
+
+    @Test
+    void cursorContinuesAfterBookingsWithTheSameStart() throws Exception {
+        List<Long> all = List.of(futureRejected, futureApproved, futureWaiting, current, past,
+                archivedRejected, archivedApproved, archivedOldest);
+        for (int size = 1; size <= 4; size++) {
+            List<Long> paged = new ArrayList<>();
+            JsonNode page = perform(search().param("size", String.valueOf(size)));
+            while (!page.isEmpty()) {
+                assertThat(page.size()).isLessThanOrEqualTo(size);
+                paged.addAll(ids(page));
+                JsonNode last = page.get(page.size() - 1);
+                page = perform(search()
+                        .param("size", String.valueOf(size))
+                        .param("afterStart", last.get("start").asText())
+                        .param("afterId", last.get("id").asText()));
+            }
+            assertThat(paged).as("pages of %d", size).containsExactlyElementsOf(all);
+        }
+    }
+
+    private MockHttpServletRequestBuilder search() {
+        return get("/bookings/owner/search").header(HttpHeaders.USER_ID_HEADER, ownerId);
+    }
+
+    private List<Long> ids(MockHttpServletRequestBuilder request) throws Exception {
+        return ids(perform(request));
+    }
+
+    private List<Long> ids(JsonNode bookings) {
+        List<Long> ids = new ArrayList<>();
+        bookings.forEach(booking -> ids.add(booking.get("id").asLong()));
+        return ids;
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request) throws Exception {
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private Long book(Long itemId, Long booker, LocalDateTime start, LocalDateTime end,
+                      Booking.BookingStatus status) {
+        LocalDateTime placeholder = now.plusYears(1).plusDays(created++);
+        Long id = bookingService.createBooking(booker,
+                new BookingDto(null, placeholder, placeholder.plusHours(1), itemId, booker, null)).getId();
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ?, status = ? WHERE id = ?",
+                start, end, status.name(), id);
+        return id;
+    }
+
+    private Long archive(Long id) {
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings WHERE id = ?", id);
+        jdbcTemplate.update("DELETE FROM bookings WHERE id = ?", id);
+        return id;
+    }
+
+    private Long createItem(String name) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(name + " for rent");
+        item.setAvailable(true);
+        return itemService.create(item, ownerId).getId();
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+}
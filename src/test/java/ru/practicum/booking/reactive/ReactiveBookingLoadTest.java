@@ -0,0 +1,175 @@
+package ru.practicum.booking.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.HttpHeaders;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serves the booking lists over a real port from one in-memory database that the JDBC and R2DBC pools share.
+ * The load test sends the same burst of concurrent requests to the blocking JSON stack and to the NDJSON stream
+ * and logs, for each, the heap allocated by server threads per request and how many threads the burst added.
+ * The stream runs first, so the request threads the blocking burst leaves behind cannot flatter it.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-load;DB_CLOSE_DELAY=-1",
+        "shareit.reactive.enabled=true",
+        "shareit.reactive.url=r2dbc:h2:mem:///reactive-load?DB_CLOSE_DELAY=-1",
+        "shareit.booking.timeline.enabled=false"
+})
+@ActiveProfiles("test")
+class ReactiveBookingLoadTest {
+    private static final int BOOKINGS = 12;
+    private static final int CONCURRENCY = 100;
+    private static final Pattern BOOKING_ID = Pattern.compile("\\{\"id\":(\\d+),\"start\"");
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private Long bookerId;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void setUp() {
+        Long ownerId = createUser();
+        bookerId = createUser();
+        ItemDto item = new ItemDto();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        Long itemId = itemService.create(item, ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingIds.add(bookingService.createBooking(bookerId,
+                    new BookingDto(null, start.plusHours(i), start.plusHours(i + 1), itemId, bookerId, null)).getId());
+        }
+    }
+
+    @Test
+    void bookingsWithTheSameStartArePagedById() throws Exception {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(5);
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ? WHERE booker_id = ?",
+                start, start.plusHours(1), bookerId);
+
+        List<Long> paged = new ArrayList<>();
+        for (int from = 0; from < BOOKINGS; from += 5) {
+            paged.addAll(ids(get("/bookings?from=" + from + "&size=5", "application/x-ndjson").join().body()));
+        }
+
+        assertThat(paged).containsExactlyElementsOf(
+                bookingIds.stream().sorted(Comparator.reverseOrder()).toList());
+    }
+
+    @Test
+    void memoryPerConcurrentConnection() {
+        Burst streaming = burst("application/x-ndjson");
+        Burst blocking = burst("application/json");
+
+        log.info("{} concurrent requests, JSON: {} KiB allocated per request, {} threads added; "
+                        + "NDJSON: {} KiB allocated per request, {} threads added", CONCURRENCY,
+                blocking.allocatedPerRequest() / 1024, blocking.addedThreads(),
+                streaming.allocatedPerRequest() / 1024, streaming.addedThreads());
+        assertThat(blocking.allocatedPerRequest()).isPositive();
+        assertThat(streaming.allocatedPerRequest()).isPositive();
+    }
+
+    private Burst burst(String accept) {
+        get("/bookings", accept).join();
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int threadsBefore = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        long allocatedBefore = serverAllocatedBytes(threads);
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            responses.add(get("/bookings", accept));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            HttpResponse<String> completed = response.join();
+            assertThat(completed.statusCode()).isEqualTo(200);
+            assertThat(ids(completed.body())).hasSize(10);
+        }
+
+        long allocated = serverAllocatedBytes(threads) - allocatedBefore;
+        return new Burst(allocated / CONCURRENCY, threads.getPeakThreadCount() - threadsBefore);
+    }
+
+    private static long serverAllocatedBytes(com.sun.management.ThreadMXBean threads) {
+        long total = 0;
+        for (var info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info == null || info.getThreadName().startsWith("HttpClient")
+                    || info.getThreadName().equals(Thread.currentThread().getName())) {
+                continue;
+            }
+            total += Math.max(0, threads.getThreadAllocatedBytes(info.getThreadId()));
+        }
+        return total;
+    }
+
+    private CompletableFuture<HttpResponse<String>> get(String path, String accept) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.USER_ID_HEADER, String.valueOf(bookerId))
+                .header("Accept", accept)
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static List<Long> ids(String body) {
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = BOOKING_ID.matcher(body);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+
+    private record Burst(long allocatedPerRequest, int addedThreads) {
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+    private static final long USER_ID = 7L;
+
+    @AfterEach
+    void clear() {
+        RoutingUserContext.clear();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void splitSendsWritesToThePrimaryAndReadsToTheReadPool() {
+        ReadWriteRoutingDataSource split = new ReadWriteRoutingDataSource(pool(), pool(), List.of(),
+                Duration.ZERO, 0);
+
+        assertThat(split.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(split.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY_READ);
+    }
+
+    @Test
+    void stickyReadersUseTheReadPool() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(pool(), pool(), List.of(pool()),
+                Duration.ofMinutes(1), 100);
+        RoutingUserContext.set(USER_ID);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY_READ);
+    }
+
+    @Test
+    void readsStayOnThePrimaryWithoutAReadPool() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(pool(), null, List.of(),
+                Duration.ZERO, 0);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+    }
+
+    private static DataSource pool() {
+        return new DriverManagerDataSource("jdbc:h2:mem:unused");
+    }
+}
@@ -0,0 +1,206 @@
+package ru.practicum.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.user.dto.UserUpdateDto;
+import ru.practicum.util.HttpHeaders;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against two separate in-memory databases. Nothing replicates between them: the tests copy rows to the
+ * replica under a different name, so the name a read returns tells which database served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingIntegrationTest.PRIMARY_URL,
+        "shareit.datasource.routing.enabled=true",
+        "shareit.datasource.routing.stickiness=1m",
+        "shareit.datasource.routing.replicas[0].url=" + ReadWriteRoutingIntegrationTest.REPLICA_URL
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadWriteRoutingIntegrationTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_NAME = "replica copy";
+
+    private static final JdbcTemplate primary = jdbc(PRIMARY_URL);
+    private static final JdbcTemplate replica = jdbc(REPLICA_URL);
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "sa").load().migrate();
+    }
+
+    @AfterEach
+    void clearUser() {
+        RoutingUserContext.clear();
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        Long userId = createUser();
+
+        assertThat(countUsers(primary, userId)).isEqualTo(1);
+        assertThat(countUsers(replica, userId)).isZero();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        Long userId = createReplicatedUser();
+
+        assertThat(userService.getById(userId).getName()).isEqualTo(REPLICA_NAME);
+    }
+
+    @Test
+    void userReadsTheirOwnWriteFromThePrimary() {
+        Long userId = createReplicatedUser();
+        Long otherUserId = createReplicatedUser();
+
+        RoutingUserContext.set(userId);
+        userService.update(userId, rename("updated"));
+        assertThat(userService.getById(userId).getName()).isEqualTo("updated");
+
+        RoutingUserContext.set(otherUserId);
+        assertThat(userService.getById(userId).getName()).isEqualTo(REPLICA_NAME);
+    }
+
+    @Test
+    void failedWriteDoesNotPinTheUser() {
+        Long userId = createReplicatedUser();
+        Long otherUserId = createReplicatedUser();
+        String takenEmail = primary.queryForObject("SELECT email FROM users WHERE id = ?", String.class, otherUserId);
+        UserUpdateDto duplicateEmail = new UserUpdateDto();
+        duplicateEmail.setEmail(takenEmail);
+
+        RoutingUserContext.set(userId);
+        assertThatThrownBy(() -> userService.update(userId, duplicateEmail)).isInstanceOf(RuntimeException.class);
+        assertThat(userService.getById(userId).getName()).isEqualTo(REPLICA_NAME);
+    }
+
+    @Test
+    void anonymousWriterIsNotPinned() throws Exception {
+        Long userId = createReplicatedUser();
+
+        mockMvc.perform(patch("/users/{userId}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"anonymous update\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(REPLICA_NAME));
+    }
+
+    @Test
+    void unparseableUserHeaderIsNotPinned() throws Exception {
+        Long userId = createReplicatedUser();
+
+        mockMvc.perform(patch("/users/{userId}", userId)
+                        .header(HttpHeaders.USER_ID_HEADER, "not-a-number")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"unparseable update\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/{userId}", userId)
+                        .header(HttpHeaders.USER_ID_HEADER, "not-a-number"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(REPLICA_NAME));
+    }
+
+    @Test
+    void userHeaderPinsTheWriterForTheRequestOnly() throws Exception {
+        Long userId = createReplicatedUser();
+
+        mockMvc.perform(patch("/users/{userId}", userId)
+                        .header(HttpHeaders.USER_ID_HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"own update\"}"))
+                .andExpect(status().isOk());
+        assertThat(RoutingUserContext.get()).isNull();
+
+        mockMvc.perform(get("/users/{userId}", userId)
+                        .header(HttpHeaders.USER_ID_HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("own update"));
+        mockMvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(REPLICA_NAME));
+    }
+
+    @Test
+    void userMissingOnTheReplicaIsConfirmedOnThePrimary() throws Exception {
+        Long userId = createUser();
+
+        mockMvc.perform(get("/bookings").header(HttpHeaders.USER_ID_HEADER, userId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/bookings").header(HttpHeaders.USER_ID_HEADER, userId + 1_000_000))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void interceptorIgnoresUnparseableHeader() throws Exception {
+        RoutingUserInterceptor interceptor = new RoutingUserInterceptor();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.USER_ID_HEADER, "12abc");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        assertThat(RoutingUserContext.get()).isNull();
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("primary");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+
+    private Long createReplicatedUser() {
+        Long userId = createUser();
+        String email = primary.queryForObject("SELECT email FROM users WHERE id = ?", String.class, userId);
+        replica.update("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", userId, REPLICA_NAME, email);
+        return userId;
+    }
+
+    private static UserUpdateDto rename(String name) {
+        UserUpdateDto update = new UserUpdateDto();
+        update.setName(name);
+        return update;
+    }
+
+    private static int countUsers(JdbcTemplate database, Long userId) {
+        Integer count = database.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, userId);
+        return count != null ? count : 0;
+    }
+
+    private static JdbcTemplate jdbc(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", "sa"));
+    }
+}
@@ -0,0 +1,247 @@
+package ru.practicum.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "shareit.outbox.max-attempts=3",
+        "shareit.outbox.retry-backoff-ms=60000",
+        "shareit.outbox.max-retry-backoff-ms=600000"
+})
+@ActiveProfiles("test")
+class OutboxPollerTest {
+    @Autowired
+    private OutboxPoller outboxPoller;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private RecordingListener recordingListener;
+    @Autowired
+    private FailingListener failingListener;
+
+    @BeforeEach
+    void setUp() {
+        outboxPoller.poll();
+        recordingListener.calls.clear();
+        recordingListener.calledInTransaction.set(false);
+        failingListener.calls.clear();
+        failingListener.failing.clear();
+    }
+
+    @Test
+    void listenersRunAfterTheClaimCommits() {
+        Long id = storeEvent();
+
+        outboxPoller.poll();
+
+        assertThat(recordingListener.callsFor(id)).isEqualTo(1);
+        assertThat(recordingListener.calledInTransaction).isFalse();
+        OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+        assertThat(event.getProcessedAt()).isNotNull();
+        assertThat(event.getClaimedBy()).isNull();
+        assertThat(event.getClaimedUntil()).isNull();
+    }
+
+    @Test
+    void failedListenerIsRetriedAloneAfterTheBackoff() {
+        Long id = storeEvent();
+        failingListener.failing.add(id);
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxPoller.poll();
+
+        OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+        assertThat(event.getProcessedAt()).isNull();
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getDeliveredTo()).contains("RecordingListener").doesNotContain("FailingListener");
+        assertThat(event.getNextAttemptAt()).isBetween(before.plusSeconds(59), LocalDateTime.now().plusSeconds(61));
+        assertThat(event.getClaimedBy()).isNull();
+
+        outboxPoller.poll();
+        assertThat(failingListener.callsFor(id)).isEqualTo(1);
+
+        failingListener.failing.remove(id);
+        makeDue(id);
+        outboxPoller.poll();
+
+        assertThat(failingListener.callsFor(id)).isEqualTo(2);
+        assertThat(recordingListener.callsFor(id)).isEqualTo(1);
+        assertThat(outboxEventRepository.findById(id).orElseThrow().getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    void backoffDoublesPerAttempt() {
+        Long id = storeEvent();
+        failingListener.failing.add(id);
+
+        outboxPoller.poll();
+        makeDue(id);
+        LocalDateTime before = LocalDateTime.now();
+        outboxPoller.poll();
+
+        assertThat(outboxEventRepository.findById(id).orElseThrow().getNextAttemptAt())
+                .isBetween(before.plusSeconds(119), LocalDateTime.now().plusSeconds(121));
+    }
+
+    @Test
+    void eventIsDeadAfterMaxAttempts() {
+        Long id = storeEvent();
+        failingListener.failing.add(id);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            makeDue(id);
+            outboxPoller.poll();
+        }
+
+        OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+        assertThat(event.getAttempts()).isEqualTo(3);
+        assertThat(event.getProcessedAt()).isNull();
+        assertThat(event.getNextAttemptAt()).isNull();
+
+        makeDue(id);
+        outboxPoller.poll();
+        assertThat(failingListener.callsFor(id)).isEqualTo(3);
+
+        jdbcTemplate.update("UPDATE outbox_events SET created = ? WHERE id = ?",
+                LocalDateTime.now().minusYears(1), id);
+        outboxPoller.cleanup();
+        assertThat(outboxEventRepository.findById(id)).isEmpty();
+    }
+
+    @Test
+    void eventClaimedElsewhereIsSkippedUntilTheLeaseRunsOut() {
+        Long id = storeEvent();
+        jdbcTemplate.update("UPDATE outbox_events SET claimed_by = 'other', claimed_until = ? WHERE id = ?",
+                LocalDateTime.now().plusMinutes(1), id);
+
+        outboxPoller.poll();
+        assertThat(recordingListener.callsFor(id)).isZero();
+
+        jdbcTemplate.update("UPDATE outbox_events SET claimed_until = ? WHERE id = ?",
+                LocalDateTime.now().minusSeconds(1), id);
+        outboxPoller.poll();
+
+        assertThat(recordingListener.callsFor(id)).isEqualTo(1);
+        assertThat(outboxEventRepository.findById(id).orElseThrow().getClaimedBy()).isNull();
+    }
+
+    @Test
+    void concurrentPollersDeliverEachEventOnce() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(storeEvent());
+        }
+
+        int pollers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(pollers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> polls = new ArrayList<>();
+            for (int i = 0; i < pollers; i++) {
+                polls.add(executor.submit(() -> {
+                    start.await();
+                    outboxPoller.poll();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> poll : polls) {
+                poll.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (Long id : ids) {
+            assertThat(recordingListener.callsFor(id)).as("deliveries of event %d", id).isEqualTo(1);
+        }
+    }
+
+    private Long storeEvent() {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(DomainEventType.ITEM_UPDATED);
+        event.setAggregateId(1L);
+        event.setItemId(1L);
+        event.setOwnerId(1L);
+        event.setUserId(1L);
+        event.setCreated(LocalDateTime.now());
+        return outboxEventRepository.save(event).getId();
+    }
+
+    private void makeDue(Long id) {
+        jdbcTemplate.update("UPDATE outbox_events SET next_attempt_at = ? WHERE id = ?",
+                LocalDateTime.now().minusSeconds(1), id);
+    }
+
+    @TestConfiguration
+    static class Listeners {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+
+        @Bean
+        FailingListener failingListener() {
+            return new FailingListener();
+        }
+    }
+
+    static class RecordingListener implements DomainEventListener {
+        final Map<Long, AtomicInteger> calls = new ConcurrentHashMap<>();
+        final AtomicBoolean calledInTransaction = new AtomicBoolean();
+
+        @Override
+        public boolean supports(DomainEventType type) {
+            return true;
+        }
+
+        @Override
+        public void onEvent(DomainEvent event) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                calledInTransaction.set(true);
+            }
+            calls.computeIfAbsent(event.getId(), id -> new AtomicInteger()).incrementAndGet();
+        }
+
+        int callsFor(Long id) {
+            AtomicInteger count = calls.get(id);
+            return count == null ? 0 : count.get();
+        }
+    }
+
+    static class FailingListener extends RecordingListener {
+        final Set<Long> failing = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void onEvent(DomainEvent event) {
+            super.onEvent(event);
+            if (failing.contains(event.getId())) {
+                throw new IllegalStateException("Listener down");
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.shard.ShardRouter;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Creates bookings through {@link IdempotencyStore#execute}. A second store over the same table stands in for
+ * another instance, whose cache has not seen the key.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyStoreTest {
+    private static final String OPERATION = "booking.create";
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    @Autowired
+    private IdempotencyRecordRepository repository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private Long bookerId;
+    private Long itemId;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        Long ownerId = createUser();
+        bookerId = createUser();
+        ItemDto item = new ItemDto();
+        item.setName("Tent");
+        item.setDescription("Two-person tent");
+        item.setAvailable(true);
+        itemId = itemService.create(item, ownerId).getId();
+        key = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneBooking() throws Exception {
+        BookingDto request = request(1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingResponseDto>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(executor.submit(() -> {
+                start.await();
+                return create(idempotencyStore, request);
+            }));
+        }
+        start.countDown();
+
+        for (Future<BookingResponseDto> response : responses) {
+            assertThat(response.get(30, TimeUnit.SECONDS).getId()).isEqualTo(responses.get(0).get().getId());
+        }
+        assertThat(bookingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void replayAfterCacheMissIsServedFromTheTable() {
+        BookingDto request = request(1);
+        BookingResponseDto first = create(idempotencyStore, request);
+
+        BookingResponseDto replayed = create(anotherInstance(), request);
+
+        assertThat(replayed.getId()).isEqualTo(first.getId());
+        assertThat(replayed.getStart()).isEqualTo(first.getStart());
+        assertThat(bookingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reusedKeyWithDifferentBodyIsRejected() {
+        create(idempotencyStore, request(1));
+
+        assertThatThrownBy(() -> create(idempotencyStore, request(2))).isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> create(anotherInstance(), request(2))).isInstanceOf(ConflictException.class);
+        assertThat(bookingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedActionCanBeRetriedWithTheSameKey() {
+        BookingDto request = request(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyStore.execute(key, bookerId, OPERATION, request,
+                BookingResponseDto.class, () -> {
+                    calls.incrementAndGet();
+                    bookingService.createBooking(bookerId, request);
+                    throw new IllegalStateException("Downstream failure");
+                })).isInstanceOf(IllegalStateException.class);
+        assertThat(bookingCount()).isZero();
+        assertThat(repository.findById(bookerId + ":" + OPERATION + ":" + key)).isEmpty();
+
+        BookingResponseDto retried = create(idempotencyStore, request);
+
+        assertThat(retried.getId()).isNotNull();
+        assertThat(calls).hasValue(1);
+        assertThat(bookingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keyClashOnInsertReplaysTheCommittedResponse() throws Exception {
+        BookingDto request = request(1);
+        CountDownLatch inAction = new CountDownLatch(1);
+        CountDownLatch firstDone = new CountDownLatch(1);
+        IdempotencyStore slow = anotherInstance();
+        Future<BookingResponseDto> second = executor.submit(() -> slow.execute(key, bookerId, OPERATION, request,
+                BookingResponseDto.class, () -> {
+                    BookingResponseDto response = bookingService.createBooking(bookerId, request);
+                    inAction.countDown();
+                    await(firstDone);
+                    return response;
+                }));
+        assertThat(inAction.await(30, TimeUnit.SECONDS)).isTrue();
+
+        BookingResponseDto first = create(idempotencyStore, request);
+        firstDone.countDown();
+
+        assertThat(second.get(30, TimeUnit.SECONDS).getId()).isEqualTo(first.getId());
+        assertThat(bookingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredRecordIsNotReplayed() {
+        BookingDto request = request(1);
+        BookingResponseDto first = create(idempotencyStore, request);
+        jdbcTemplate.update("UPDATE idempotency_keys SET created = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(2), bookerId + ":" + OPERATION + ":" + key);
+
+        BookingResponseDto second = create(anotherInstance(), request);
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(bookingCount()).isEqualTo(2);
+        assertThat(create(anotherInstance(), request).getId()).isEqualTo(second.getId());
+    }
+
+    private BookingResponseDto create(IdempotencyStore store, BookingDto request) {
+        return store.execute(key, bookerId, OPERATION, request, BookingResponseDto.class,
+                () -> bookingService.createBooking(bookerId, request));
+    }
+
+    private IdempotencyStore anotherInstance() {
+        return new IdempotencyStore(repository, transactionTemplate, shardRouter, objectMapper,
+                Duration.ofHours(24), 100, 30_000);
+    }
+
+    private BookingDto request(int daysAhead) {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(daysAhead);
+        return new BookingDto(null, start, start.plusHours(1), itemId, bookerId, null);
+    }
+
+    private int bookingCount() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE booker_id = ?",
+                Integer.class, bookerId);
+        return count != null ? count : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.exception.NotFoundException;
+import ru.practicum.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ItemReadCoalescerTest {
+    private static final long ITEM_ID = 1L;
+    private static final long OWNER_ID = 10L;
+    private static final long VIEWER_ID = 20L;
+    private static final int READERS = 32;
+
+    private final ItemReadCoalescer coalescer =
+            new ItemReadCoalescer(mock(PlatformTransactionManager.class), Duration.ofMinutes(1), 100);
+    private final ExecutorService readers = Executors.newFixedThreadPool(READERS);
+
+    @AfterEach
+    void shutDown() {
+        readers.shutdownNow();
+    }
+
+    @Test
+    void concurrentReadsLoadEachViewOnce() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        loader.block();
+
+        List<Future<ItemDto>> results = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            Long viewer = i % 2 == 0 ? OWNER_ID : VIEWER_ID;
+            results.add(readers.submit(() -> coalescer.get(ITEM_ID, viewer, loader)));
+        }
+        assertThat(loader.awaitFirstLoad()).isTrue();
+        loader.release();
+
+        for (int i = 0; i < READERS; i++) {
+            ItemDto item = results.get(i).get(5, TimeUnit.SECONDS);
+            assertThat(item.getName()).isEqualTo(i % 2 == 0 ? "owner view 1" : "public view 1");
+        }
+        assertThat(loader.publicLoads.get()).isEqualTo(1);
+        assertThat(loader.ownerLoads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void ownerViewIsLoadedOnlyForTheOwner() {
+        CountingLoader loader = new CountingLoader();
+
+        assertThat(coalescer.get(ITEM_ID, VIEWER_ID, loader).getName()).isEqualTo("public view 1");
+        assertThat(loader.ownerLoads.get()).isZero();
+
+        assertThat(coalescer.get(ITEM_ID, OWNER_ID, loader).getName()).isEqualTo("owner view 1");
+        assertThat(coalescer.get(ITEM_ID, OWNER_ID, loader).getName()).isEqualTo("owner view 1");
+        assertThat(loader.publicLoads.get()).isEqualTo(1);
+        assertThat(loader.ownerLoads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateDuringLoadKeepsTheStaleResultOutOfTheCache() throws Exception {
+        CountingLoader loader = new CountingLoader();
+        loader.block();
+
+        Future<ItemDto> stale = readers.submit(() -> coalescer.get(ITEM_ID, VIEWER_ID, loader));
+        assertThat(loader.awaitFirstLoad()).isTrue();
+
+        coalescer.invalidate(ITEM_ID);
+        ItemDto fresh = readers.submit(() -> coalescer.get(ITEM_ID, VIEWER_ID, loader)).get(5, TimeUnit.SECONDS);
+        loader.release();
+
+        assertThat(stale.get(5, TimeUnit.SECONDS).getName()).isEqualTo("public view 1");
+        assertThat(fresh.getName()).isEqualTo("public view 2");
+        assertThat(coalescer.get(ITEM_ID, VIEWER_ID, loader).getName()).isEqualTo("public view 2");
+        assertThat(loader.publicLoads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        BiFunction<Long, Boolean, ItemView> loader = (itemId, ownerView) -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new NotFoundException("Item not found");
+            }
+            return view("public view", loads.get());
+        };
+
+        assertThatThrownBy(() -> coalescer.get(ITEM_ID, VIEWER_ID, loader)).isInstanceOf(NotFoundException.class);
+        assertThat(coalescer.get(ITEM_ID, VIEWER_ID, loader).getName()).isEqualTo("public view 2");
+    }
+
+    private static ItemView view(String name, int version) {
+        ItemDto item = new ItemDto();
+        item.setId(ITEM_ID);
+        item.setName(name + " " + version);
+        return new ItemView(item, OWNER_ID);
+    }
+
+    /**
+     * Counts loads per view. While blocked, only the first load waits for {@link #release()}, so a test can hold
+     * one load in flight and let the others through.
+     */
+    private static class CountingLoader implements BiFunction<Long, Boolean, ItemView> {
+        private final AtomicInteger publicLoads = new AtomicInteger();
+        private final AtomicInteger ownerLoads = new AtomicInteger();
+        private final CountDownLatch firstLoad = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile boolean blocked;
+
+        void block() {
+            blocked = true;
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        boolean awaitFirstLoad() throws InterruptedException {
+            return firstLoad.await(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public ItemView apply(Long itemId, Boolean ownerView) {
+            int version = ownerView ? ownerLoads.incrementAndGet() : publicLoads.incrementAndGet();
+            if (blocked && firstLoad.getCount() > 0) {
+                firstLoad.countDown();
+                try {
+                    released.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return view(ownerView ? "owner view" : "public view", version);
+        }
+    }
+}
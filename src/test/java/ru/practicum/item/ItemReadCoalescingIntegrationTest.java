@@ -0,0 +1,97 @@
+package ru.practicum.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.item-cache.ttl=1m")
+@ActiveProfiles("test")
+class ItemReadCoalescingIntegrationTest {
+    private static final int READERS = 32;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemReadCoalescer itemReadCoalescer;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long ownerId;
+    private Long viewerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = createUser();
+        viewerId = createUser();
+        ItemDto item = new ItemDto();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        itemId = itemService.create(item, ownerId).getId();
+    }
+
+    @Test
+    void burstOfReadsRunsTheStatementsOfOneReadPerView() throws Exception {
+        long publicView = statementsOf(() -> itemService.getById(itemId, viewerId));
+        long ownerView = statementsOf(() -> itemService.getById(itemId, ownerId));
+        itemReadCoalescer.invalidate(itemId);
+
+        long burst = statementsOf(() -> {
+            ExecutorService readers = Executors.newFixedThreadPool(READERS);
+            try {
+                List<Future<ItemDto>> results = new ArrayList<>();
+                for (int i = 0; i < READERS; i++) {
+                    Long viewer = i % 2 == 0 ? ownerId : viewerId;
+                    results.add(readers.submit(() -> itemService.getById(itemId, viewer)));
+                }
+                for (Future<ItemDto> result : results) {
+                    assertThat(result.get(10, TimeUnit.SECONDS).getId()).isEqualTo(itemId);
+                }
+            } finally {
+                readers.shutdownNow();
+            }
+            return null;
+        });
+
+        assertThat(publicView).isPositive();
+        assertThat(ownerView).isPositive();
+        assertThat(burst).isEqualTo(publicView + ownerView);
+    }
+
+    private long statementsOf(Callable<?> action) throws Exception {
+        long before = statistics.getPrepareStatementCount();
+        action.call();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+}
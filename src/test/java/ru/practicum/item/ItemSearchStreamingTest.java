@@ -0,0 +1,89 @@
+package ru.practicum.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Searches items through the streamed {@code GET /items/search} with a flush after every other item, so the
+ * array is written over several chunks.
+ */
+@SpringBootTest(properties = "shareit.json.flush-every=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemSearchStreamingTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void everyAvailableMatchIsWritten() throws Exception {
+        String word = "Lantern" + UUID.randomUUID().toString().replace("-", "");
+        Long ownerId = createUser();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(create(ownerId, word + " " + i, "Camping lantern", true));
+        }
+        expected.add(create(ownerId, "Camping light", "Battery " + word.toLowerCase(), true));
+        create(ownerId, word + " spare", "Out of stock", false);
+
+        List<Long> found = new ArrayList<>();
+        search(word.toUpperCase()).forEach(item -> found.add(item.get("id").asLong()));
+
+        assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void blankTextWritesAnEmptyArray() throws Exception {
+        assertThat(search(" ").isEmpty()).isTrue();
+    }
+
+    private JsonNode search(String text) throws Exception {
+        MvcResult started = mockMvc.perform(get("/items/search").param("text", text))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private Long create(Long ownerId, String name, String description, boolean available) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return itemService.create(item, ownerId).getId();
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("owner");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.util.HttpHeaders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Sends requests to two patterns of one group and expects the group's capacity to be shared between them.
+ */
+@SpringBootTest(properties = {
+        "shareit.rate-limit.enabled=true",
+        "shareit.rate-limit.groups.search.patterns=/requests/search",
+        "shareit.rate-limit.groups.items.patterns=/items,/items/{itemId}",
+        "shareit.rate-limit.groups.items.capacity=4",
+        "shareit.rate-limit.groups.items.refill-per-second=0.001"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void patternsOfOneGroupShareTheBucket() throws Exception {
+        long userId = 7;
+        for (int i = 0; i < 2; i++) {
+            assertThat(status("/items", userId)).isNotEqualTo(429);
+            assertThat(status("/items/1", userId)).isNotEqualTo(429);
+        }
+
+        assertThat(status("/items", userId)).isEqualTo(429);
+        assertThat(status("/items/1", userId)).isEqualTo(429);
+        assertThat(status("/items/1", userId + 1)).isNotEqualTo(429);
+        assertThat(status("/users", userId)).isNotEqualTo(429);
+    }
+
+    private int status(String path, long userId) throws Exception {
+        return mockMvc.perform(get(path).header(HttpHeaders.USER_ID_HEADER, userId))
+                .andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,214 @@
+package ru.practicum.shard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.user.dto.UserUpdateDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs with two in-memory shards. The booker timeline is off so booker lists take the scatter and merge path.
+ */
+@SpringBootTest(properties = {
+        "shareit.sharding.enabled=true",
+        "shareit.sharding.id-span=1000000",
+        "shareit.sharding.shards[0].url=jdbc:h2:mem:sharding-test-0;DB_CLOSE_DELAY=-1",
+        "shareit.sharding.shards[1].url=jdbc:h2:mem:sharding-test-1;DB_CLOSE_DELAY=-1",
+        "shareit.sharding.replication-retry-delay-ms=3600000",
+        "shareit.sharding.replication-max-attempts=3",
+        "shareit.booking.timeline.enabled=false"
+})
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+    private static final long ID_SPAN = 1_000_000;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private ShardingDataSource shardingDataSource;
+    @Autowired
+    private UserReplicator userReplicator;
+
+    @Test
+    void itemAndBookingAreStoredOnTheOwnerShard() {
+        Long booker = createUser();
+        for (int shard = 0; shard < 2; shard++) {
+            Long owner = createUserOnShard(shard);
+            ItemDto item = createItem(owner);
+            BookingResponseDto booking = book(booker, item.getId(), 1);
+
+            assertThat(shardRouter.shardOfId(item.getId())).isEqualTo(shard);
+            assertThat(shardRouter.shardOfId(booking.getId())).isEqualTo(shard);
+            assertThat(count(shard, "items", item.getId())).isEqualTo(1);
+            assertThat(count(1 - shard, "items", item.getId())).isZero();
+            assertThat(count(shard, "bookings", booking.getId())).isEqualTo(1);
+            assertThat(count(1 - shard, "bookings", booking.getId())).isZero();
+
+            assertThat(itemService.getById(item.getId(), booker).getName()).isEqualTo(item.getName());
+            assertThat(bookingService.getBookingById(booker, booking.getId()).getItem().getId())
+                    .isEqualTo(item.getId());
+        }
+    }
+
+    @Test
+    void bookerPagesAcrossShardsFollowTheUnshardedOrder() {
+        Long booker = createUser();
+        List<Long> items = List.of(
+                createItem(createUserOnShard(0)).getId(),
+                createItem(createUserOnShard(1)).getId());
+        List<BookingResponseDto> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(book(booker, items.get(i % 3 == 0 ? 0 : 1), i + 1));
+        }
+        List<Long> expected = created.stream()
+                .sorted(Comparator.comparing(BookingResponseDto::getStart).reversed())
+                .map(BookingResponseDto::getId)
+                .toList();
+
+        List<Long> paged = new ArrayList<>();
+        for (int from = 0; from < created.size(); from += 3) {
+            bookingService.getUserBookings(booker, "ALL", from, 3).forEach(booking -> paged.add(booking.getId()));
+        }
+
+        assertThat(paged).containsExactlyElementsOf(expected);
+        assertThat(bookingService.getUserBookings(booker, "ALL", 4, 2))
+                .extracting(BookingResponseDto::getId)
+                .containsExactlyElementsOf(expected.subList(4, 6));
+        assertThat(bookingService.getUserBookings(booker, "ALL", 9, 3)).isEmpty();
+    }
+
+    @Test
+    void userChangesOnTheHomeShardAreCopiedToTheOtherShard() {
+        Long userId = createUser();
+        assertThat(userName(1, userId)).isEqualTo("user");
+
+        UserUpdateDto update = new UserUpdateDto();
+        update.setName("renamed");
+        userService.update(userId, update);
+        assertThat(userName(0, userId)).isEqualTo("renamed");
+        assertThat(userName(1, userId)).isEqualTo("renamed");
+
+        userService.delete(userId);
+        assertThat(count(1, "users", userId)).isZero();
+    }
+
+    @Test
+    void failedCopyIsRetried() {
+        Long userId = createUser();
+        String email = "taken-" + UUID.randomUUID() + "@example.com";
+        JdbcTemplate shard1 = jdbc(1);
+        shard1.update("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", userId + ID_SPAN, "stale", email);
+
+        UserUpdateDto update = new UserUpdateDto();
+        update.setEmail(email);
+        userService.update(userId, update);
+        assertThat(userReplicator.pendingCount()).isEqualTo(1);
+
+        shard1.update("DELETE FROM users WHERE id = ?", userId + ID_SPAN);
+        userReplicator.retryPending();
+
+        assertThat(userReplicator.pendingCount()).isZero();
+        assertThat(shard1.queryForObject("SELECT email FROM users WHERE id = ?", String.class, userId))
+                .isEqualTo(email);
+    }
+
+    @Test
+    void userWithDataOnAnotherShardCannotBeDeleted() {
+        Long owner = createUserOnShard(1);
+        Long booker = createUserOnShard(0);
+        book(booker, createItem(owner).getId(), 1);
+
+        for (Long userId : List.of(owner, booker)) {
+            assertThatThrownBy(() -> userService.delete(userId)).isInstanceOf(ConflictException.class);
+            assertThat(count(0, "users", userId)).isEqualTo(1);
+            assertThat(count(1, "users", userId)).isEqualTo(1);
+        }
+        assertThat(userReplicator.pendingCount()).isZero();
+    }
+
+    @Test
+    void failedCopyIsGivenUpAfterMaxAttempts() {
+        Long userId = createUser();
+        String email = "taken-" + UUID.randomUUID() + "@example.com";
+        JdbcTemplate shard1 = jdbc(1);
+        shard1.update("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", userId + ID_SPAN, "stale", email);
+
+        UserUpdateDto update = new UserUpdateDto();
+        update.setEmail(email);
+        userService.update(userId, update);
+        userReplicator.retryPending();
+        assertThat(userReplicator.pendingCount()).isEqualTo(1);
+
+        userReplicator.retryPending();
+        assertThat(userReplicator.pendingCount()).isZero();
+        shard1.update("DELETE FROM users WHERE id = ?", userId + ID_SPAN);
+    }
+
+    private Long createUser() {
+        UserDto user = new UserDto();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        return userService.save(user).getId();
+    }
+
+    private Long createUserOnShard(int shard) {
+        Long userId = createUser();
+        while (shardRouter.shardOfOwner(userId) != shard) {
+            userId = createUser();
+        }
+        return userId;
+    }
+
+    private ItemDto createItem(Long ownerId) {
+        ItemDto item = new ItemDto();
+        item.setName("Item of " + ownerId);
+        item.setDescription("Shared tool");
+        item.setAvailable(true);
+        return itemService.create(item, ownerId);
+    }
+
+    private BookingResponseDto book(Long bookerId, Long itemId, int daysAhead) {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(daysAhead);
+        return bookingService.createBooking(bookerId,
+                new BookingDto(null, start, start.plusHours(1), itemId, bookerId, null));
+    }
+
+    private String userName(int shard, Long userId) {
+        return jdbc(shard).queryForObject("SELECT name FROM users WHERE id = ?", String.class, userId);
+    }
+
+    private int count(int shard, String table, Long id) {
+        Integer count = jdbc(shard).queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?",
+                Integer.class, id);
+        return count != null ? count : 0;
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shardingDataSource.shard(shard));
+    }
+}
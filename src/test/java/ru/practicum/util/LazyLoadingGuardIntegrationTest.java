@@ -0,0 +1,165 @@
+package ru.practicum.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.booking.Booking;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls every read endpoint that maps entities with {@link LazyLoadingGuard} on, so a response that reaches past
+ * the fetch plan of its query fails with a 500 instead of passing.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LazyLoadingGuardIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long pastBookingId;
+    private long futureBookingId;
+    private String itemName;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ownerId = createUser();
+        bookerId = createUser();
+        itemName = "Ladder " + UUID.randomUUID();
+        itemId = send(post("/items"), ownerId,
+                Map.of("name", itemName, "description", "Folding ladder", "available", true)).get("id").asLong();
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        pastBookingId = book(now.minusDays(2), now.minusDays(1));
+        futureBookingId = book(now.plusDays(1), now.plusDays(2));
+        approve(pastBookingId);
+        approve(futureBookingId);
+        send(post("/items/{itemId}/comment", itemId), bookerId, Map.of("text", "Sturdy"));
+    }
+
+    @Test
+    void itemReads() throws Exception {
+        read(get("/items/{itemId}", itemId), ownerId)
+                .andExpect(jsonPath("$.lastBooking.id").value(pastBookingId))
+                .andExpect(jsonPath("$.nextBooking.bookerId").value(bookerId))
+                .andExpect(jsonPath("$.comments[0].authorName").value("user"));
+        read(get("/items/{itemId}", itemId), bookerId)
+                .andExpect(jsonPath("$.comments[0].text").value("Sturdy"));
+        read(get("/items"), ownerId)
+                .andExpect(jsonPath("$[0].lastBooking.id").value(pastBookingId))
+                .andExpect(jsonPath("$[0].comments[0].authorName").value("user"));
+        read(get("/items/search").param("text", itemName), bookerId)
+                .andExpect(jsonPath("$[0].id").value(itemId));
+    }
+
+    @Test
+    void bookingReads() throws Exception {
+        read(get("/bookings/{bookingId}", pastBookingId), bookerId)
+                .andExpect(jsonPath("$.item.name").value(itemName))
+                .andExpect(jsonPath("$.booker.id").value(bookerId));
+        read(get("/bookings"), bookerId)
+                .andExpect(jsonPath("$[0].id").value(futureBookingId))
+                .andExpect(jsonPath("$[0].item.name").value(itemName));
+        read(get("/bookings").param("state", "PAST").param("view", "compact"), bookerId)
+                .andExpect(jsonPath("$[0].id").value(pastBookingId));
+        read(get("/bookings/owner"), ownerId)
+                .andExpect(jsonPath("$[1].booker.id").value(bookerId));
+        read(get("/bookings/owner").param("state", "FUTURE"), ownerId)
+                .andExpect(jsonPath("$[0].id").value(futureBookingId));
+    }
+
+    @Test
+    void ownerReads() throws Exception {
+        read(get("/bookings/owner/search").param("itemId", String.valueOf(itemId)).param("status", "APPROVED"),
+                ownerId)
+                .andExpect(jsonPath("$[0].id").value(futureBookingId))
+                .andExpect(jsonPath("$[1].id").value(pastBookingId))
+                .andExpect(jsonPath("$[1].item.name").value(itemName))
+                .andExpect(jsonPath("$[1].booker.id").value(bookerId));
+        read(get("/owners/me/summary"), ownerId);
+    }
+
+    @Test
+    void lazyLoadOutsideTransactionFailsWhileSessionIsOpen() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Booking booking = entityManager.find(Booking.class, pastBookingId);
+
+            assertThat(entityManager.isOpen()).isTrue();
+            assertThatThrownBy(() -> booking.getItem().getName()).isInstanceOf(LazyInitializationException.class);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private long createUser() throws Exception {
+        return send(post("/users"), null,
+                Map.of("name", "user", "email", UUID.randomUUID() + "@example.com")).get("id").asLong();
+    }
+
+    private long book(LocalDateTime start, LocalDateTime end) throws Exception {
+        return send(post("/bookings"), bookerId,
+                Map.of("itemId", itemId, "start", start.toString(), "end", end.toString())).get("id").asLong();
+    }
+
+    private void approve(long bookingId) throws Exception {
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .header(HttpHeaders.USER_ID_HEADER, ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request, Long userId, Object body) throws Exception {
+        if (userId != null) {
+            request.header(HttpHeaders.USER_ID_HEADER, userId);
+        }
+        String response = mockMvc.perform(request
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private ResultActions read(MockHttpServletRequestBuilder request, long userId) throws Exception {
+        ResultActions result = mockMvc.perform(request.header(HttpHeaders.USER_ID_HEADER, userId));
+        MvcResult started = result.andReturn();
+        if (started.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(started));
+        }
+        return result.andExpect(status().isOk());
+    }
+}